@@ -12,6 +12,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.example.customdialog.CustomDialog;
 import com.example.customtoast.CustomToast;
 import com.example.datepicker.CustomDatePicker;
+import com.example.loading.LoadingViewPool;
 import com.example.searchbox.CustomSearchBox;
 
 public class MainActivity extends AppCompatActivity {
@@ -39,6 +40,9 @@ public class MainActivity extends AppCompatActivity {
 
         initViews();
         setupListeners();
+
+        // 主线程空闲时预创建LoadingView，进入Loading页面后第一次显示不需要inflate
+        LoadingViewPool.warmUp(this);
     }
 
     private void initViews() {
@@ -70,65 +70,41 @@ public class ProgressBarTestActivity extends AppCompatActivity {
         // 注意：环形进度条的模式和进度已经在XML中设置了
         // 这里不需要再次设置，除非需要修改
 
-        // 添加进度监听（通过定时更新显示）
-        startProgressMonitor();
+        // 添加进度监听：进度值显示的是progressBar1的进度，进度变化时更新显示（每帧最多一次，按1%粒度）
+        progressBar1.setOnProgressChangeListener((progressBar, progress) -> updateProgressValue(progressBar), 1);
     }
 
     private void setupListeners() {
         // 基础测试 - 设置不同进度值
-        btnProgress0.setOnClickListener(v -> {
-            progressBar1.setProgress(0f);
-            updateProgressValue(progressBar1);
-        });
+        btnProgress0.setOnClickListener(v -> progressBar1.setProgress(0f));
 
-        btnProgress25.setOnClickListener(v -> {
-            progressBar1.setProgress(0.25f);
-            updateProgressValue(progressBar1);
-        });
+        btnProgress25.setOnClickListener(v -> progressBar1.setProgress(0.25f));
 
-        btnProgress50.setOnClickListener(v -> {
-            progressBar1.setProgress(0.5f);
-            updateProgressValue(progressBar1);
-        });
+        btnProgress50.setOnClickListener(v -> progressBar1.setProgress(0.5f));
 
-        btnProgress100.setOnClickListener(v -> {
-            progressBar1.setProgress(1f);
-            updateProgressValue(progressBar1);
-        });
+        btnProgress100.setOnClickListener(v -> progressBar1.setProgress(1f));
 
         // 动画测试 - 从0到100%
         btnAnimateProgress.setOnClickListener(v -> {
             progressBar2.setProgress(0f, false); // 先无动画设置到0
-            handler.postDelayed(() -> {
-                progressBar2.setProgress(1f, true); // 然后动画到100%
-                updateProgressValue(progressBar2);
-            }, 100);
+            handler.postDelayed(() -> progressBar2.setProgress(1f, true), 100); // 然后动画到100%
         });
 
         // 无动画测试
-        btnNoAnimate.setOnClickListener(v -> {
-            progressBar3.setProgress(0.5f, false);
-            updateProgressValue(progressBar3);
-        });
+        btnNoAnimate.setOnClickListener(v -> progressBar3.setProgress(0.5f, false));
 
         // 快速动画测试
         btnFastAnimate.setOnClickListener(v -> {
             progressBar4.setAnimationDuration(200);
             progressBar4.setProgress(0f, false);
-            handler.postDelayed(() -> {
-                progressBar4.setProgress(1f, true);
-                updateProgressValue(progressBar4);
-            }, 100);
+            handler.postDelayed(() -> progressBar4.setProgress(1f, true), 100);
         });
 
         // 慢速动画测试
         btnSlowAnimate.setOnClickListener(v -> {
             progressBar4.setAnimationDuration(2000);
             progressBar4.setProgress(0f, false);
-            handler.postDelayed(() -> {
-                progressBar4.setProgress(1f, true);
-                updateProgressValue(progressBar4);
-            }, 100);
+            handler.postDelayed(() -> progressBar4.setProgress(1f, true), 100);
         });
 
         // 连续动画测试
@@ -137,10 +113,7 @@ public class ProgressBarTestActivity extends AppCompatActivity {
             handler.postDelayed(() -> progressBar5.setProgress(0.25f, true), 100);
             handler.postDelayed(() -> progressBar5.setProgress(0.5f, true), 700);
             handler.postDelayed(() -> progressBar5.setProgress(0.75f, true), 1300);
-            handler.postDelayed(() -> {
-                progressBar5.setProgress(1f, true);
-                updateProgressValue(progressBar5);
-            }, 1900);
+            handler.postDelayed(() -> progressBar5.setProgress(1f, true), 1900);
         });
 
         // 切换模式
@@ -159,10 +132,7 @@ public class ProgressBarTestActivity extends AppCompatActivity {
         // 环形动画测试
         btnCircularAnimate.setOnClickListener(v -> {
             progressBarCircular.setProgress(0f, false);
-            handler.postDelayed(() -> {
-                progressBarCircular.setProgress(1f, true);
-                updateProgressValue(progressBarCircular);
-            }, 100);
+            handler.postDelayed(() -> progressBarCircular.setProgress(1f, true), 100);
         });
     }
 
@@ -174,22 +144,6 @@ public class ProgressBarTestActivity extends AppCompatActivity {
         tvProgressValue.setText(String.format("%.2f (%.0f%%)", progress, progress * 100));
     }
 
-    /**
-     * 开始进度监控（定时更新显示）
-     */
-    private void startProgressMonitor() {
-        handler.post(new Runnable() {
-            @Override
-            public void run() {
-                // 显示第一个进度条的当前值
-                if (progressBar1 != null) {
-                    updateProgressValue(progressBar1);
-                }
-                handler.postDelayed(this, 100); // 每100ms更新一次
-            }
-        });
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -10,18 +10,18 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.example.refreshrecyclerview.ColumnarItemStore;
 import com.example.refreshrecyclerview.OnLoadMoreListener;
 import com.example.refreshrecyclerview.OnRefreshListener;
 import com.example.refreshrecyclerview.RefreshRecyclerView;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.example.refreshrecyclerview.StickyHeaderDecoration;
 
 public class RefreshRecyclerViewTestActivity extends AppCompatActivity {
     
     private RefreshRecyclerView mRefreshRecyclerView;
     private TestAdapter mAdapter;
-    private List<String> mDataList;
+    private StickyHeaderDecoration mStickyHeaderDecoration;
+    private ColumnarItemStore mStore;
     private int mPage = 1;
     private Handler mHandler;
     
@@ -52,9 +52,13 @@ public class RefreshRecyclerViewTestActivity extends AppCompatActivity {
         mRefreshRecyclerView = findViewById(R.id.refresh_recycler_view);
         mRefreshRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         
-        mDataList = new ArrayList<>();
-        mAdapter = new TestAdapter(mDataList);
+        mStore = new ColumnarItemStore(2, 0, 0); // 两个int列：页码、项目序号
+        mAdapter = new TestAdapter(mStore);
         mRefreshRecyclerView.setAdapter(mAdapter);
+        
+        // 按页分组的吸顶头
+        mStickyHeaderDecoration = new StickyHeaderDecoration(mAdapter);
+        mRefreshRecyclerView.addItemDecoration(mStickyHeaderDecoration);
     }
     
     private void initData() {
@@ -67,14 +71,19 @@ public class RefreshRecyclerViewTestActivity extends AppCompatActivity {
         mRefreshRecyclerView.setOnRefreshListener(new OnRefreshListener() {
             @Override
             public void onRefresh() {
+                // 记录这次刷新的代数，请求返回时已经开始了新的刷新（例如点击重试）则丢弃结果
+                final int generation = mRefreshRecyclerView.getRefreshGeneration();
                 // 模拟网络请求
                 mHandler.postDelayed(new Runnable() {
                     @Override
                     public void run() {
+                        if (!mRefreshRecyclerView.isCurrentRefresh(generation)) {
+                            return;
+                        }
                         mPage = 1;
-                        mDataList.clear();
+                        mStore.clear();
                         loadData(mPage, false);
-                        mRefreshRecyclerView.finishRefresh();
+                        mRefreshRecyclerView.finishRefresh(generation);
                         Toast.makeText(RefreshRecyclerViewTestActivity.this, "刷新成功", Toast.LENGTH_SHORT).show();
                     }
                 }, 1500); // 延迟1.5秒模拟网络请求
@@ -110,18 +119,13 @@ public class RefreshRecyclerViewTestActivity extends AppCompatActivity {
      * @param append 是否追加数据
      */
     private void loadData(int page, boolean append) {
-        int startIndex = mDataList.size();
-        int count = 20; // 每页20条数据
-        
-        for (int i = 0; i < count; i++) {
-            int index = startIndex + i + 1;
-            mDataList.add("第" + page + "页 - 项目 " + index);
-        }
-        
-        if (append) {
-            mAdapter.notifyItemRangeInserted(startIndex, count);
-        } else {
-            mAdapter.notifyDataSetChanged();
+        if (!append) {
+            mStickyHeaderDecoration.invalidateHeaders();
         }
+        // 追加一页数据（每页20条），store会通知adapter插入的范围
+        mStore.appendPage(TestAdapter.PAGE_SIZE, (store, row, indexInPage) -> {
+            store.setInt(TestAdapter.COLUMN_PAGE, row, page);
+            store.setInt(TestAdapter.COLUMN_INDEX, row, row + 1);
+        });
     }
 }
@@ -1,5 +1,6 @@
 package com.example.androiduidemo;
 
+import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,14 +9,32 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import com.example.refreshrecyclerview.ColumnarItemStore;
+import com.example.refreshrecyclerview.PrecomputedTextHelper;
+import com.example.refreshrecyclerview.StickyHeaderAdapter;
 
-public class TestAdapter extends RecyclerView.Adapter<TestAdapter.ViewHolder> {
+public class TestAdapter extends RecyclerView.Adapter<TestAdapter.ViewHolder> implements StickyHeaderAdapter {
     
-    private List<String> mDataList;
+    public static final int PAGE_SIZE = 20; // 每页数据条数，也是每个分组的大小
     
-    public TestAdapter(List<String> dataList) {
-        mDataList = dataList;
+    // 数据列
+    public static final int COLUMN_PAGE = 0;  // 页码
+    public static final int COLUMN_INDEX = 1; // 项目序号
+    
+    private final ColumnarItemStore mStore;
+    private final PrecomputedTextHelper mTextHelper;
+    
+    public TestAdapter(ColumnarItemStore store) {
+        mStore = store;
+        // 文字在绑定时才格式化，不为每一行创建字符串
+        mStore.setTextFormatter((s, row, out) -> out.append('第')
+                .append(s.getInt(COLUMN_PAGE, row))
+                .append("页 - 项目 ")
+                .append(s.getInt(COLUMN_INDEX, row)));
+        mStore.attachAdapter(this);
+        // 数据到达时在后台预计算每一行的文字布局
+        mTextHelper = new PrecomputedTextHelper(mStore::getText);
+        mTextHelper.attach(this);
     }
     
     @NonNull
@@ -23,23 +42,49 @@ public class TestAdapter extends RecyclerView.Adapter<TestAdapter.ViewHolder> {
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(android.R.layout.simple_list_item_1, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+        if (!mTextHelper.hasTextParams()) {
+            mTextHelper.setTextParams(holder.textView);
+        }
+        return holder;
     }
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        if (mDataList != null && position < mDataList.size()) {
-            holder.textView.setText(mDataList.get(position));
+        if (position < mStore.size() && !mTextHelper.bindText(holder.textView, position)) {
+            // 预计算还没完成，走普通流程
+            mStore.bindText(holder.textView, holder.textBuffer, position);
         }
     }
     
     @Override
     public int getItemCount() {
-        return mDataList != null ? mDataList.size() : 0;
+        return mStore.size();
+    }
+    
+    @Override
+    public long getSectionId(int position) {
+        return mStore.getPageOfRow(position);
+    }
+    
+    @Override
+    public View onCreateHeaderView(ViewGroup parent) {
+        TextView headerView = new TextView(parent.getContext());
+        headerView.setPadding(40, 16, 40, 16);
+        headerView.setTextSize(14);
+        headerView.setTextColor(Color.WHITE);
+        headerView.setBackgroundColor(0xFF607D8B);
+        return headerView;
+    }
+    
+    @Override
+    public void onBindHeaderView(View headerView, int position) {
+        ((TextView) headerView).setText("第" + mStore.getInt(COLUMN_PAGE, position) + "页");
     }
     
     static class ViewHolder extends RecyclerView.ViewHolder {
         TextView textView;
+        final ColumnarItemStore.TextBuffer textBuffer = new ColumnarItemStore.TextBuffer();
         
         ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -2,7 +2,6 @@ package com.example.lazyloadview;
 
 import android.content.Context;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewStub;
@@ -12,6 +11,9 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.logger.Logger;
+import com.example.logger.Tracer;
+
 /**
  * 懒加载卡片视图组件
  *
@@ -142,7 +144,7 @@ public class LazyLoadCardView extends FrameLayout {
      * 加载布局并初始化立即需要的View
      */
     private void init() {
-        Log.d(TAG, "[初始化] init() - 开始初始化LazyLoadCardView");
+        Logger.d(TAG, "[初始化] init() - 开始初始化LazyLoadCardView");
         
         // 加载主布局（包含ViewStub）
         LayoutInflater.from(getContext()).inflate(R.layout.lazy_load_card_view, this, true);
@@ -154,14 +156,14 @@ public class LazyLoadCardView extends FrameLayout {
         contentViewStub = findViewById(R.id.vs_content);
         actionsViewStub = findViewById(R.id.vs_actions);
         
-        Log.d(TAG, "[初始化] init() - LazyLoadCardView初始化完成，ViewStub已准备就绪");
+        Logger.d(TAG, "[初始化] init() - LazyLoadCardView初始化完成，ViewStub已准备就绪");
     }
 
     
     public void setTitle(String title) {
         if (titleView != null) {
             titleView.setText(title);
-            Log.d(TAG, "[设置] setTitle() - 标题设置为: " + title);
+            Logger.d(TAG, "[设置] setTitle() - 标题设置为: ", title);
         }
     }
 
@@ -180,39 +182,44 @@ public class LazyLoadCardView extends FrameLayout {
      */
     public View loadContent() {
         if (isContentLoaded) {
-            Log.d(TAG, "[懒加载] loadContent() - 内容区域已加载，直接返回");
+            Logger.d(TAG, "[懒加载] loadContent() - 内容区域已加载，直接返回");
             return loadedContentView;
         }
         
         if (contentViewStub == null) {
-            Log.w(TAG, "[懒加载] loadContent() - ViewStub为null，无法加载");
+            Logger.w(TAG, "[懒加载] loadContent() - ViewStub为null，无法加载");
             return null;
         }
         
         // 检查ViewStub是否还在视图树中（未加载时parent不为null）
         // 如果parent为null，说明ViewStub已被替换，布局已加载
         if (contentViewStub.getParent() == null) {
-            Log.d(TAG, "[懒加载] loadContent() - ViewStub已被替换，尝试查找已加载的View");
+            Logger.d(TAG, "[懒加载] loadContent() - ViewStub已被替换，尝试查找已加载的View");
             // ViewStub已被替换，尝试通过ID查找已加载的View
             loadedContentView = findViewById(R.id.content_container);
             if (loadedContentView != null) {
                 isContentLoaded = true;
-                Log.d(TAG, "[懒加载] loadContent() - 找到已加载的内容View");
+                Logger.d(TAG, "[懒加载] loadContent() - 找到已加载的内容View");
                 return loadedContentView;
             }
         }
         
         try {
-            Log.d(TAG, "[懒加载] loadContent() - 开始加载内容区域布局");
+            Logger.d(TAG, "[懒加载] loadContent() - 开始加载内容区域布局");
             // 调用inflate()加载ViewStub引用的布局
             // inflate()会返回加载后的根View，并将ViewStub从视图树中移除
-            loadedContentView = contentViewStub.inflate();
+            Tracer.begin("LazyLoadCardView#loadContent");
+            try {
+                loadedContentView = contentViewStub.inflate();
+            } finally {
+                Tracer.end();
+            }
             isContentLoaded = true;
             contentViewStub = null; // 清空引用，因为ViewStub已被移除
-            Log.d(TAG, "[懒加载] loadContent() - 内容区域加载成功");
+            Logger.d(TAG, "[懒加载] loadContent() - 内容区域加载成功");
             return loadedContentView;
         } catch (Exception e) {
-            Log.e(TAG, "[懒加载] loadContent() - 加载失败: " + e.getMessage(), e);
+            Logger.e(TAG, "[懒加载] loadContent() - 加载失败", e);
             return null;
         }
     }
@@ -224,35 +231,40 @@ public class LazyLoadCardView extends FrameLayout {
      */
     public View loadActions() {
         if (isActionsLoaded) {
-            Log.d(TAG, "[懒加载] loadActions() - 操作区域已加载，直接返回");
+            Logger.d(TAG, "[懒加载] loadActions() - 操作区域已加载，直接返回");
             return loadedActionsView;
         }
         
         if (actionsViewStub == null) {
-            Log.w(TAG, "[懒加载] loadActions() - ViewStub为null，无法加载");
+            Logger.w(TAG, "[懒加载] loadActions() - ViewStub为null，无法加载");
             return null;
         }
         
         // 检查ViewStub是否还在视图树中
         if (actionsViewStub.getParent() == null) {
-            Log.d(TAG, "[懒加载] loadActions() - ViewStub已被替换，尝试查找已加载的View");
+            Logger.d(TAG, "[懒加载] loadActions() - ViewStub已被替换，尝试查找已加载的View");
             loadedActionsView = findViewById(R.id.actions_container);
             if (loadedActionsView != null) {
                 isActionsLoaded = true;
-                Log.d(TAG, "[懒加载] loadActions() - 找到已加载的操作View");
+                Logger.d(TAG, "[懒加载] loadActions() - 找到已加载的操作View");
                 return loadedActionsView;
             }
         }
         
         try {
-            Log.d(TAG, "[懒加载] loadActions() - 开始加载操作区域布局");
-            loadedActionsView = actionsViewStub.inflate();
+            Logger.d(TAG, "[懒加载] loadActions() - 开始加载操作区域布局");
+            Tracer.begin("LazyLoadCardView#loadActions");
+            try {
+                loadedActionsView = actionsViewStub.inflate();
+            } finally {
+                Tracer.end();
+            }
             isActionsLoaded = true;
             actionsViewStub = null; // 清空引用
-            Log.d(TAG, "[懒加载] loadActions() - 操作区域加载成功");
+            Logger.d(TAG, "[懒加载] loadActions() - 操作区域加载成功");
             return loadedActionsView;
         } catch (Exception e) {
-            Log.e(TAG, "[懒加载] loadActions() - 加载失败: " + e.getMessage(), e);
+            Logger.e(TAG, "[懒加载] loadActions() - 加载失败", e);
             return null;
         }
     }
@@ -272,21 +284,27 @@ public class LazyLoadCardView extends FrameLayout {
      */
     public View loadContentFromCode(int layoutResId) {
         if (isContentLoaded) {
-            Log.d(TAG, "[代码加载] loadContentFromCode() - 内容区域已加载，直接返回");
+            Logger.d(TAG, "[代码加载] loadContentFromCode() - 内容区域已加载，直接返回");
             return loadedContentView;
         }
         
         if (contentViewStub == null || contentViewStub.getParent() == null) {
-            Log.w(TAG, "[代码加载] loadContentFromCode() - ViewStub不可用，无法加载");
+            Logger.w(TAG, "[代码加载] loadContentFromCode() - ViewStub不可用，无法加载");
             return null;
         }
         
         try {
-            Log.d(TAG, "[代码加载] loadContentFromCode() - 开始从代码加载布局: " + layoutResId);
+            Logger.d(TAG, "[代码加载] loadContentFromCode() - 开始从代码加载布局: ", layoutResId);
             
             // 使用LayoutInflater创建View
             LayoutInflater inflater = LayoutInflater.from(getContext());
-            View contentView = inflater.inflate(layoutResId, this, false);
+            View contentView;
+            Tracer.begin("LazyLoadCardView#loadContentFromCode");
+            try {
+                contentView = inflater.inflate(layoutResId, this, false);
+            } finally {
+                Tracer.end();
+            }
             
             // 获取ViewStub在父容器中的位置
             int index = indexOfChild(contentViewStub);
@@ -301,10 +319,10 @@ public class LazyLoadCardView extends FrameLayout {
             isContentLoaded = true;
             contentViewStub = null; // 清空引用
             
-            Log.d(TAG, "[代码加载] loadContentFromCode() - 代码加载成功");
+            Logger.d(TAG, "[代码加载] loadContentFromCode() - 代码加载成功");
             return loadedContentView;
         } catch (Exception e) {
-            Log.e(TAG, "[代码加载] loadContentFromCode() - 加载失败: " + e.getMessage(), e);
+            Logger.e(TAG, "[代码加载] loadContentFromCode() - 加载失败", e);
             return null;
         }
     }
@@ -1,25 +1,27 @@
 package com.example.loading;
 
 import android.app.Activity;
-import android.util.Log;
 import android.view.View;
 
 import androidx.fragment.app.Fragment;
 
-import java.lang.ref.WeakReference;
-import java.util.WeakHashMap;
+import com.example.logger.Logger;
 
 /**
  * Loading工具类，提供简单的静态方法
  * 使用示例：
  * Loading.show(activity);
  * Loading.hide(activity);
+ *
+ * show/hide/release 可以在任意线程调用：后台线程的调用会合并为每个页面的最新状态，
+ * 在下一帧统一切换到主线程执行（见 {@link LoadingDispatcher}）。
+ * acquire 也可以在任意线程调用：后台线程调用时立即返回凭证，acquire切换到主线程执行，
+ * 在此之前释放的凭证不会显示loading；凭证可以在任意线程释放。
  */
 public class Loading {
     private static final String TAG = "Loading";
     private static LoadingManager currentManager;
-    // 使用WeakHashMap存储每个target对应的LoadingManager，避免重复创建
-    private static WeakHashMap<Object, LoadingManager> managerMap = new WeakHashMap<>();
+    // 每个target对应的LoadingManager保存在LoadingRegistry中，宿主销毁时自动移除
 
     /**
      * 在Activity中显示loading
@@ -32,9 +34,14 @@ public class Loading {
      * 在Activity中显示loading，带文字提示
      */
     public static void show(Activity activity, String text) {
-        Log.d(TAG, "[显示] show(Activity) - 开始显示Loading, Activity: " + (activity != null ? activity.getClass().getSimpleName() : "null"));
+        if (LoadingDispatcher.defer(activity, LoadingDispatcher.OP_SHOW, text)) {
+            return;
+        }
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[显示] show(Activity) - 开始显示Loading, Activity: " + (activity != null ? activity.getClass().getSimpleName() : "null"));
+        }
         if (activity == null || activity.isFinishing() || activity.isDestroyed()) {
-            Log.w(TAG, "[显示] show(Activity) - Activity无效，无法显示");
+            Logger.w(TAG, "[显示] show(Activity) - Activity无效，无法显示");
             return;
         }
         LoadingManager manager = getOrCreateManager(activity);
@@ -55,9 +62,14 @@ public class Loading {
      * 在Fragment中显示loading，带文字提示
      */
     public static void show(Fragment fragment, String text) {
-        Log.d(TAG, "[显示] show(Fragment) - 开始显示Loading, Fragment: " + (fragment != null ? fragment.getClass().getSimpleName() : "null"));
+        if (LoadingDispatcher.defer(fragment, LoadingDispatcher.OP_SHOW, text)) {
+            return;
+        }
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[显示] show(Fragment) - 开始显示Loading, Fragment: " + (fragment != null ? fragment.getClass().getSimpleName() : "null"));
+        }
         if (fragment == null || !fragment.isAdded() || fragment.getActivity() == null) {
-            Log.w(TAG, "[显示] show(Fragment) - Fragment无效，无法显示");
+            Logger.w(TAG, "[显示] show(Fragment) - Fragment无效，无法显示");
             return;
         }
         LoadingManager manager = getOrCreateManager(fragment);
@@ -78,9 +90,14 @@ public class Loading {
      * 在自定义View中显示loading，带文字提示
      */
     public static void show(View view, String text) {
-        Log.d(TAG, "[显示] show(View) - 开始显示Loading, View: " + (view != null ? view.getClass().getSimpleName() : "null"));
+        if (LoadingDispatcher.defer(view, LoadingDispatcher.OP_SHOW, text)) {
+            return;
+        }
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[显示] show(View) - 开始显示Loading, View: " + (view != null ? view.getClass().getSimpleName() : "null"));
+        }
         if (view == null) {
-            Log.w(TAG, "[显示] show(View) - View为null，无法显示");
+            Logger.w(TAG, "[显示] show(View) - View为null，无法显示");
             return;
         }
         LoadingManager manager = getOrCreateManager(view);
@@ -90,31 +107,143 @@ public class Loading {
         }
     }
 
+    /**
+     * 在Activity中显示loading并返回凭证，多个并发请求共用一个loading，
+     * 所有凭证都释放（或超时）后才会隐藏，可以在任意线程调用
+     * 使用示例：
+     * LoadingToken token = Loading.acquire(activity, "加载中...");
+     * // 请求结束后
+     * token.release();
+     */
+    public static LoadingToken acquire(Activity activity, String text) {
+        return acquire(activity, text, 0);
+    }
+
+    /**
+     * 在Activity中显示loading并返回凭证
+     * @param timeoutMs 超时时间，超时后凭证自动释放，0表示不超时
+     */
+    public static LoadingToken acquire(Activity activity, String text, long timeoutMs) {
+        if (!LoadingDispatcher.isMainThread()) {
+            return acquireLater(activity, text, timeoutMs);
+        }
+        if (activity == null || activity.isFinishing() || activity.isDestroyed()) {
+            Logger.w(TAG, "[凭证] acquire(Activity) - Activity无效，无法显示");
+            return LoadingToken.EMPTY;
+        }
+        return acquireFor(activity, text, timeoutMs);
+    }
+
+    /**
+     * 在Fragment中显示loading并返回凭证
+     */
+    public static LoadingToken acquire(Fragment fragment, String text) {
+        return acquire(fragment, text, 0);
+    }
+
+    /**
+     * 在Fragment中显示loading并返回凭证
+     * @param timeoutMs 超时时间，超时后凭证自动释放，0表示不超时
+     */
+    public static LoadingToken acquire(Fragment fragment, String text, long timeoutMs) {
+        if (!LoadingDispatcher.isMainThread()) {
+            return acquireLater(fragment, text, timeoutMs);
+        }
+        if (fragment == null || !fragment.isAdded() || fragment.getActivity() == null) {
+            Logger.w(TAG, "[凭证] acquire(Fragment) - Fragment无效，无法显示");
+            return LoadingToken.EMPTY;
+        }
+        return acquireFor(fragment, text, timeoutMs);
+    }
+
+    /**
+     * 在自定义View中显示loading并返回凭证
+     */
+    public static LoadingToken acquire(View view, String text) {
+        return acquire(view, text, 0);
+    }
+
+    /**
+     * 在自定义View中显示loading并返回凭证
+     * @param timeoutMs 超时时间，超时后凭证自动释放，0表示不超时
+     */
+    public static LoadingToken acquire(View view, String text, long timeoutMs) {
+        if (!LoadingDispatcher.isMainThread()) {
+            return acquireLater(view, text, timeoutMs);
+        }
+        if (view == null) {
+            Logger.w(TAG, "[凭证] acquire(View) - View为null，无法显示");
+            return LoadingToken.EMPTY;
+        }
+        return acquireFor(view, text, timeoutMs);
+    }
+
+    /**
+     * 后台线程调用acquire：立即返回延后凭证，在主线程执行acquire后关联真正的凭证
+     * 每次调用都要计数，不能像show那样合并，超时时间从主线程执行acquire时开始计算
+     */
+    private static LoadingToken acquireLater(Object target, String text, long timeoutMs) {
+        if (target == null) {
+            Logger.w(TAG, "[凭证] acquire() - Target为null，无法显示");
+            return LoadingToken.EMPTY;
+        }
+        LoadingToken deferred = LoadingToken.deferred();
+        LoadingDispatcher.post(() -> {
+            if (deferred.isReleased()) {
+                return; // 主线程执行前已经释放，不再显示
+            }
+            LoadingToken token;
+            if (target instanceof Activity) {
+                token = acquire((Activity) target, text, timeoutMs);
+            } else if (target instanceof Fragment) {
+                token = acquire((Fragment) target, text, timeoutMs);
+            } else {
+                token = acquire((View) target, text, timeoutMs);
+            }
+            if (!deferred.attach(token)) {
+                token.release();
+            }
+        });
+        return deferred;
+    }
+
+    private static LoadingToken acquireFor(Object target, String text, long timeoutMs) {
+        LoadingManager manager = getOrCreateManager(target);
+        if (manager == null) {
+            return LoadingToken.EMPTY;
+        }
+        return manager.acquire(text, timeoutMs);
+    }
+
     /**
      * 获取或创建LoadingManager
      */
     private static LoadingManager getOrCreateManager(Object target) {
         if (target == null) {
-            Log.w(TAG, "[管理] getOrCreateManager() - Target为null");
+            Logger.w(TAG, "[管理] getOrCreateManager() - Target为null");
             return null;
         }
         
         // 先检查是否已经存在该target的manager
-        LoadingManager manager = managerMap.get(target);
+        LoadingManager manager = LoadingRegistry.getManager(target);
         if (manager != null) {
-            Log.d(TAG, "[管理] getOrCreateManager() - 复用已存在的Manager: " + target.getClass().getSimpleName());
+            if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+                Logger.d(TAG, "[管理] getOrCreateManager() - 复用已存在的Manager: " + target.getClass().getSimpleName());
+            }
             // 检查manager是否还有效（target是否还存在）
             if (isManagerValid(manager, target)) {
                 return manager;
             } else {
                 // manager无效，移除并创建新的
-                Log.d(TAG, "[管理] getOrCreateManager() - Manager无效，移除并创建新的");
-                managerMap.remove(target);
+                Logger.d(TAG, "[管理] getOrCreateManager() - Manager无效，移除并创建新的");
+                LoadingRegistry.removeManager(target);
             }
         }
         
         // 创建新的manager
-        Log.d(TAG, "[管理] getOrCreateManager() - 创建新的Manager: " + target.getClass().getSimpleName());
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[管理] getOrCreateManager() - 创建新的Manager: " + target.getClass().getSimpleName());
+        }
         if (target instanceof Activity) {
             manager = LoadingManager.with((Activity) target);
         } else if (target instanceof Fragment) {
@@ -122,14 +251,14 @@ public class Loading {
         } else if (target instanceof View) {
             manager = LoadingManager.with((View) target);
         } else {
-            Log.e(TAG, "[管理] getOrCreateManager() - 未知的Target类型");
+            Logger.e(TAG, "[管理] getOrCreateManager() - 未知的Target类型");
             return null;
         }
         
-        // 存储到map中
+        // 存储到注册表中
         if (manager != null) {
-            managerMap.put(target, manager);
-            Log.d(TAG, "[管理] getOrCreateManager() - Manager已存储到map, 当前map大小: " + managerMap.size());
+            LoadingRegistry.putManager(target, manager);
+            Logger.d(TAG, "[管理] getOrCreateManager() - Manager已存储到注册表, 当前数量: ", LoadingRegistry.getCachedManagerCount());
         }
         
         return manager;
@@ -151,11 +280,14 @@ public class Loading {
      * 隐藏loading
      */
     public static void hide() {
-        Log.d(TAG, "[隐藏] hide() - 开始隐藏Loading");
+        if (LoadingDispatcher.defer(LoadingDispatcher.GLOBAL_TARGET, LoadingDispatcher.OP_HIDE, null)) {
+            return;
+        }
+        Logger.d(TAG, "[隐藏] hide() - 开始隐藏Loading");
         if (currentManager != null) {
             currentManager.hide();
         } else {
-            Log.w(TAG, "[隐藏] hide() - currentManager为null，无法隐藏");
+            Logger.w(TAG, "[隐藏] hide() - currentManager为null，无法隐藏");
         }
     }
 
@@ -163,10 +295,10 @@ public class Loading {
      * 隐藏指定target的loading
      */
     public static void hide(Object target) {
-        if (target == null) {
+        if (target == null || LoadingDispatcher.defer(target, LoadingDispatcher.OP_HIDE, null)) {
             return;
         }
-        LoadingManager manager = managerMap.get(target);
+        LoadingManager manager = LoadingRegistry.getManager(target);
         if (manager != null) {
             manager.hide();
         }
@@ -176,25 +308,29 @@ public class Loading {
      * 释放资源（通常在Activity/Fragment销毁时调用）
      */
     public static void release() {
-        Log.d(TAG, "[释放] release() - 开始释放所有资源");
+        if (LoadingDispatcher.defer(LoadingDispatcher.GLOBAL_TARGET, LoadingDispatcher.OP_RELEASE, null)) {
+            return;
+        }
+        Logger.d(TAG, "[释放] release() - 开始释放所有资源");
         if (currentManager != null) {
             currentManager.release();
             currentManager = null;
         }
-        // 清理map
-        int mapSize = managerMap.size();
-        managerMap.clear();
-        Log.d(TAG, "[释放] release() - 资源已释放, 清理了 " + mapSize + " 个Manager");
+        // 清理注册表中缓存的Manager
+        int mapSize = LoadingRegistry.clearManagers();
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[释放] release() - 资源已释放, 清理了 " + mapSize + " 个Manager");
+        }
     }
 
     /**
      * 释放指定target的资源
      */
     public static void release(Object target) {
-        if (target == null) {
+        if (target == null || LoadingDispatcher.defer(target, LoadingDispatcher.OP_RELEASE, null)) {
             return;
         }
-        LoadingManager manager = managerMap.remove(target);
+        LoadingManager manager = LoadingRegistry.removeManager(target);
         if (manager != null) {
             manager.release();
         }
@@ -203,5 +339,47 @@ public class Loading {
             currentManager = null;
         }
     }
-}
 
+    /**
+     * 宿主销毁，Manager已从注册表移除（由LoadingRegistry调用）
+     */
+    static void onManagerEvicted(LoadingManager manager) {
+        if (currentManager == manager) {
+            currentManager = null;
+        }
+    }
+
+    /**
+     * 在主线程执行后台线程提交的操作
+     */
+    static void apply(LoadingDispatcher.PendingOp pending) {
+        Object target = pending.target;
+        if (target == LoadingDispatcher.GLOBAL_TARGET) {
+            if (pending.op == LoadingDispatcher.OP_RELEASE) {
+                release();
+            } else {
+                hide();
+            }
+            return;
+        }
+        switch (pending.op) {
+            case LoadingDispatcher.OP_SHOW:
+                if (target instanceof Activity) {
+                    show((Activity) target, pending.text);
+                } else if (target instanceof Fragment) {
+                    show((Fragment) target, pending.text);
+                } else if (target instanceof View) {
+                    show((View) target, pending.text);
+                }
+                break;
+            case LoadingDispatcher.OP_HIDE:
+                hide(target);
+                break;
+            case LoadingDispatcher.OP_RELEASE:
+                release(target);
+                break;
+            default:
+                break;
+        }
+    }
+}
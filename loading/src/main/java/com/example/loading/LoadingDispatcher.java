@@ -0,0 +1,198 @@
+package com.example.loading;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loading跨线程调度
+ *
+ * 后台线程（网络回调、RxJava等）调用 Loading 时，不直接修改View，而是把操作写入该页面的"最新状态"槽位，
+ * 同一页面在一帧内的多次操作只保留最后一次（例如 show→hide→show 只会执行一次show），
+ * 然后在下一帧（Choreographer）统一在主线程执行，每帧最多修改一次UI。
+ *
+ * 主线程调用时直接执行，并丢弃该页面还没执行的后台操作，保证"最后一次调用生效"。
+ * 不指定页面的 hide()/release() 会丢弃在它之前提交的所有页面的show（release丢弃所有操作）：
+ * 在主线程调用时丢弃还没执行的槽位；在后台线程调用时，帧回调执行前先合并本帧取出的操作（见 {@link #takePending}），
+ * 例如后台线程 show(activity)→hide() 在这一帧只执行hide，不会先添加loading再在同一帧移除。
+ */
+final class LoadingDispatcher {
+    static final int OP_SHOW = 0;
+    static final int OP_HIDE = 1;
+    static final int OP_RELEASE = 2;
+
+    /**
+     * 不指定页面的操作（Loading.hide() / Loading.release()）使用的键
+     */
+    static final Object GLOBAL_TARGET = new Object();
+
+    /**
+     * 待执行的操作，创建后不可修改
+     */
+    static final class PendingOp {
+        final Object target;
+        final int op;
+        final String text;
+        final long sequence; // 调用顺序，不同页面之间按调用顺序执行
+
+        PendingOp(Object target, int op, String text, long sequence) {
+            this.target = target;
+            this.op = op;
+            this.text = text;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final ConcurrentHashMap<Object, PendingOp> pendingOps = new ConcurrentHashMap<>();
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final AtomicBoolean frameScheduled = new AtomicBoolean(false);
+    private static final Comparator<PendingOp> BY_SEQUENCE = (a, b) -> Long.compare(a.sequence, b.sequence);
+
+    // 以下字段只在主线程访问
+    private static final ArrayList<PendingOp> drainBuffer = new ArrayList<>();
+    // 正在执行待执行的操作：此时的主线程调用来自drain()本身，不能丢弃之后新提交的操作
+    private static boolean draining = false;
+
+    private static final Choreographer.FrameCallback frameCallback = frameTimeNanos -> drain();
+    private static final Runnable scheduleFrame = () -> Choreographer.getInstance().postFrameCallback(frameCallback);
+
+    /**
+     * 主线程Handler，第一次后台调用时才创建（类初始化不依赖Looper）
+     */
+    private static final class MainHandlerHolder {
+        static final Handler INSTANCE = new Handler(Looper.getMainLooper());
+    }
+
+    private LoadingDispatcher() {
+    }
+
+    static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * 判断调用是否需要延后执行
+     * @return true表示当前不在主线程，操作已写入槽位，调用方直接返回；
+     *         false表示在主线程，调用方直接执行（该页面待执行的后台操作已丢弃）
+     */
+    static boolean defer(Object target, int op, String text) {
+        if (target == null) {
+            return false;
+        }
+        if (isMainThread()) {
+            if (draining) {
+                return false;
+            }
+            if (target == GLOBAL_TARGET) {
+                cancelPending(op, sequence.get());
+            } else {
+                pendingOps.remove(target);
+            }
+            return false;
+        }
+        if (enqueue(target, op, text)) {
+            MainHandlerHolder.INSTANCE.post(scheduleFrame);
+        }
+        return true;
+    }
+
+    /**
+     * 在主线程执行（不合并，例如后台线程的acquire，每次调用都要计数）
+     */
+    static void post(Runnable runnable) {
+        MainHandlerHolder.INSTANCE.post(runnable);
+    }
+
+    /**
+     * 把后台线程的操作写入该页面的槽位
+     * @return true表示需要安排帧回调
+     */
+    static boolean enqueue(Object target, int op, String text) {
+        pendingOps.put(target, new PendingOp(target, op, text, sequence.incrementAndGet()));
+        return frameScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * 全局操作执行时，丢弃在它之前提交的操作：hide丢弃所有页面的show，release丢弃所有操作
+     * @param upToSequence 只丢弃调用顺序不晚于这个值的操作，之后提交的操作仍然执行
+     */
+    private static void cancelPending(int globalOp, long upToSequence) {
+        for (Map.Entry<Object, PendingOp> entry : pendingOps.entrySet()) {
+            PendingOp pending = entry.getValue();
+            if (pending.sequence <= upToSequence && (globalOp == OP_RELEASE || pending.op == OP_SHOW)) {
+                pendingOps.remove(entry.getKey(), pending);
+            }
+        }
+    }
+
+    /**
+     * 取出所有待执行的操作，按调用顺序排序并合并
+     *
+     * 全局操作之前提交的页面操作已经被它覆盖，在执行前丢弃：hide丢弃之前的show，release丢弃之前的所有操作。
+     * 这样一帧内只执行合并后的结果，不会先执行show再被同一帧的全局hide撤销。
+     */
+    static void takePending(ArrayList<PendingOp> out) {
+        // 先清除标记，执行期间后台线程写入的新操作会安排到下一帧
+        frameScheduled.set(false);
+        for (Map.Entry<Object, PendingOp> entry : pendingOps.entrySet()) {
+            // 只移除读取到的这一个操作，读取后被覆盖的新操作留到下一帧
+            if (pendingOps.remove(entry.getKey(), entry.getValue())) {
+                out.add(entry.getValue());
+            }
+        }
+        Collections.sort(out, BY_SEQUENCE);
+        PendingOp global = null;
+        for (int i = out.size() - 1; i >= 0; i--) {
+            if (out.get(i).target == GLOBAL_TARGET) {
+                global = out.get(i);
+                break;
+            }
+        }
+        if (global == null) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < out.size(); i++) {
+            PendingOp pending = out.get(i);
+            boolean superseded = pending.target != GLOBAL_TARGET
+                    && pending.sequence < global.sequence
+                    && (global.op == OP_RELEASE || pending.op == OP_SHOW);
+            if (!superseded) {
+                out.set(kept++, pending);
+            }
+        }
+        out.subList(kept, out.size()).clear();
+    }
+
+    /**
+     * 在帧回调中执行所有待执行的操作
+     */
+    private static void drain() {
+        takePending(drainBuffer);
+        if (drainBuffer.isEmpty()) {
+            return;
+        }
+        draining = true;
+        try {
+            for (int i = 0; i < drainBuffer.size(); i++) {
+                PendingOp pending = drainBuffer.get(i);
+                if (pending.target == GLOBAL_TARGET) {
+                    // 早于它、但读取时还没写入槽位的操作（并发写入），在这里丢弃
+                    cancelPending(pending.op, pending.sequence);
+                }
+                Loading.apply(pending);
+            }
+        } finally {
+            draining = false;
+            drainBuffer.clear();
+        }
+    }
+}
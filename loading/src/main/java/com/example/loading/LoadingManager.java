@@ -1,9 +1,10 @@
 package com.example.loading;
 
 import android.app.Activity;
-import android.app.Application;
-import android.os.Bundle;
-import android.util.Log;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.Window;
@@ -11,10 +12,9 @@ import android.view.Window;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
-import androidx.fragment.app.FragmentActivity;
-import androidx.lifecycle.Lifecycle;
-import androidx.lifecycle.LifecycleEventObserver;
-import androidx.lifecycle.LifecycleOwner;
+
+import com.example.logger.Logger;
+import com.example.logger.Tracer;
 
 import java.lang.ref.WeakReference;
 
@@ -24,19 +24,62 @@ import java.lang.ref.WeakReference;
  */
 public class LoadingManager {
     private static final String TAG = "LoadingManager";
+
+    /**
+     * 显示方式：每次show()添加到父容器，hide()时移除（默认）
+     */
+    public static final int MODE_ADD_REMOVE = 0;
+    /**
+     * 显示方式：第一次show()时添加到父容器后一直保留，之后只切换可见性，
+     * 显示和隐藏不会触发父容器内容的重新布局
+     */
+    public static final int MODE_PERSISTENT_LAYER = 1;
+
+    private static int defaultPresentationMode = MODE_ADD_REMOVE;
+    private int presentationMode = defaultPresentationMode;
+
+    // 显示策略：延迟显示 + 最短显示时长（类似ContentLoadingProgressBar）
+    private static long defaultShowDelayMs = 0;
+    private static long defaultMinShowTimeMs = 0;
+    private long showDelayMs = defaultShowDelayMs;     // 延迟多久才真正显示，期间hide()则完全不显示
+    private long minShowTimeMs = defaultMinShowTimeMs; // 显示后至少保留多久，避免一闪而过
+    private long shownAtMs = -1; // 真正显示的时间（uptimeMillis）
+    private String pendingText;  // 延迟显示期间最新的文字
+    private boolean delayedShowPosted = false;
+    private boolean delayedHidePosted = false;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable delayedShow = () -> {
+        delayedShowPosted = false;
+        performShow(pendingText);
+        pendingText = null;
+    };
+    // 引用计数：未释放的凭证数量，所有凭证共用一个LoadingView
+    private int activeTokens = 0;
+    private int tokenGeneration = 0; // 页面销毁或释放时递增，旧凭证自动失效
+    private final Runnable delayedHide = () -> {
+        delayedHidePosted = false;
+        performHide(LoadingTelemetry.CAUSE_HIDE);
+    };
     private LoadingView loadingView;
     private WeakReference<Object> targetRef;
-    private LifecycleEventObserver lifecycleObserver;
-    private Application.ActivityLifecycleCallbacks activityLifecycleCallbacks;
-    private boolean isLifecycleRegistered = false;
+    private final Class<?> hostClass; // 显示时长统计使用的宿主类
+    private boolean isLifecycleRegistered = false; // 是否已注册到LoadingRegistry
 
     private LoadingManager(Object target) {
         this.targetRef = new WeakReference<>(target);
+        Object host = LoadingRegistry.findHost(target);
+        this.hostClass = (host != null ? host : target).getClass();
         String targetType = target instanceof Activity ? "Activity" : 
                            target instanceof Fragment ? "Fragment" : 
                            target instanceof View ? "View" : "Unknown";
-        Log.d(TAG, "[创建] LoadingManager - Target类型: " + targetType + ", Target: " + target.getClass().getSimpleName());
-        initLifecycleObserver();
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[创建] LoadingManager - Target类型: " + targetType + ", Target: " + target.getClass().getSimpleName());
+        }
+        // 在主线程空闲时预创建LoadingView，第一次show()时不需要再inflate
+        Context context = getTargetContext(target);
+        if (context != null) {
+            LoadingViewPool.warmUp(context);
+        }
     }
 
     /**
@@ -60,6 +103,57 @@ public class LoadingManager {
         return new LoadingManager(view);
     }
 
+    /**
+     * 设置新创建的LoadingManager默认使用的显示方式
+     * @param mode {@link #MODE_ADD_REMOVE} 或 {@link #MODE_PERSISTENT_LAYER}
+     */
+    public static void setDefaultPresentationMode(int mode) {
+        defaultPresentationMode = mode;
+    }
+
+    /**
+     * 设置显示方式，已显示的loading会先隐藏并从父容器移除
+     * @param mode {@link #MODE_ADD_REMOVE} 或 {@link #MODE_PERSISTENT_LAYER}
+     */
+    public LoadingManager setPresentationMode(int mode) {
+        if (presentationMode != mode) {
+            recordHidden(LoadingTelemetry.CAUSE_RELEASE);
+            detachLoadingView();
+            presentationMode = mode;
+        }
+        return this;
+    }
+
+    /**
+     * 设置新创建的LoadingManager默认使用的显示策略
+     * @param showDelayMs 延迟显示时长，在此之前hide()则不会显示
+     * @param minShowTimeMs 显示后的最短显示时长
+     */
+    public static void setDefaultShowPolicy(long showDelayMs, long minShowTimeMs) {
+        defaultShowDelayMs = Math.max(0, showDelayMs);
+        defaultMinShowTimeMs = Math.max(0, minShowTimeMs);
+    }
+
+    /**
+     * 设置显示策略：在延迟时长内完成的操作完全不会修改View树；
+     * 显示后至少保留最短显示时长，期间的hide()/show()会合并为一次连续显示
+     * @param showDelayMs 延迟显示时长，0表示立即显示
+     * @param minShowTimeMs 最短显示时长，0表示立即隐藏
+     */
+    public LoadingManager setShowPolicy(long showDelayMs, long minShowTimeMs) {
+        this.showDelayMs = Math.max(0, showDelayMs);
+        this.minShowTimeMs = Math.max(0, minShowTimeMs);
+        return this;
+    }
+
+    /**
+     * loading是否正在显示
+     */
+    public boolean isShowing() {
+        return loadingView != null && loadingView.getParent() != null
+                && loadingView.getVisibility() == View.VISIBLE;
+    }
+
     /**
      * 显示loading
      */
@@ -73,79 +167,284 @@ public class LoadingManager {
     public void show(String text) {
         Object target = targetRef.get();
         if (target == null) {
-            Log.w(TAG, "[显示] show() - Target已被回收，无法显示");
+            Logger.w(TAG, "[显示] show() - Target已被回收，无法显示");
+            return;
+        }
+
+        // 等待最短显示时长的隐藏被取消，和之前的显示合并为一次
+        cancelDelayedHide();
+
+        // 注册生命周期监听（避免重复注册），延迟显示期间页面暂停也能取消
+        if (!isLifecycleRegistered) {
+            registerLifecycleListener(target);
+            isLifecycleRegistered = true;
+            Logger.d(TAG, "[显示] show() - 生命周期监听已注册");
+        }
+
+        if (showDelayMs > 0 && !isShowing()) {
+            // 延迟显示：在此期间hide()则完全不碰View树
+            if (text != null) {
+                pendingText = text;
+            }
+            if (!delayedShowPosted) {
+                delayedShowPosted = true;
+                mainHandler.postDelayed(delayedShow, showDelayMs);
+            }
+            return;
+        }
+        performShow(text);
+    }
+
+    /**
+     * 真正显示loading
+     */
+    private void performShow(String text) {
+        Tracer.begin("LoadingManager#show");
+        try {
+            showLoadingView(text);
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private void showLoadingView(String text) {
+        Object target = targetRef.get();
+        if (target == null) {
             return;
         }
 
         if (loadingView != null && loadingView.getParent() != null) {
-            // 如果已经显示，只更新文字
-            Log.d(TAG, "[显示] show() - Loading已显示，只更新文字: " + text);
             if (text != null) {
                 loadingView.setLoadingText(text);
             }
+            if (loadingView.getVisibility() != View.VISIBLE) {
+                // 常驻图层：只切换可见性（INVISIBLE -> VISIBLE 只需要重绘，不需要重新布局）
+                loadingView.setVisibility(View.VISIBLE);
+                loadingView.announceShown();
+                shownAtMs = SystemClock.uptimeMillis();
+                Logger.d(TAG, "[显示] show() - 常驻图层已显示");
+            } else {
+                // 如果已经显示，只更新文字
+                Logger.d(TAG, "[显示] show() - Loading已显示，只更新文字: ", text);
+            }
             return;
         }
 
         ViewGroup parentView = getParentView(target);
         if (parentView == null) {
-            Log.e(TAG, "[显示] show() - 无法获取父容器View");
+            Logger.e(TAG, "[显示] show() - 无法获取父容器View");
             return;
         }
 
-        Log.d(TAG, "[显示] show() - 开始显示Loading, 文字: " + text + ", 父容器: " + parentView.getClass().getSimpleName());
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[显示] show() - 开始显示Loading, 文字: " + text + ", 父容器: " + parentView.getClass().getSimpleName());
+        }
 
-        // 创建loading view
+        // 从缓存池中取出loading view
         if (loadingView == null) {
-            loadingView = new LoadingView(parentView.getContext());
-            Log.d(TAG, "[显示] show() - 创建新的LoadingView");
-        } else {
-            // 如果loadingView已存在但被移除过，重置尺寸计算标志
-            loadingView.resetSizeCalculation();
-            Log.d(TAG, "[显示] show() - 复用已存在的LoadingView，重置尺寸计算");
+            loadingView = LoadingViewPool.acquire(parentView.getContext());
+            Logger.d(TAG, "[显示] show() - 从缓存池取出LoadingView");
         }
 
         if (text != null) {
             loadingView.setLoadingText(text);
         }
+        loadingView.setVisibility(View.VISIBLE);
 
-        // 添加到父容器
+        // 添加到父容器（常驻图层模式下只会添加一次）
         parentView.addView(loadingView, new ViewGroup.LayoutParams(
                 ViewGroup.LayoutParams.MATCH_PARENT,
                 ViewGroup.LayoutParams.MATCH_PARENT));
-        Log.d(TAG, "[显示] show() - LoadingView已添加到父容器");
+        Logger.d(TAG, "[显示] show() - LoadingView已添加到父容器");
+        loadingView.announceShown();
+        // 尺寸在LoadingView.onMeasure中计算，不需要再post重新计算
+        shownAtMs = SystemClock.uptimeMillis();
+    }
 
-        // 强制重新计算尺寸，确保每次显示时尺寸一致
-        loadingView.post(() -> {
-            if (loadingView != null && loadingView.getParent() != null) {
-                loadingView.forceRecalculateSize();
-                Log.d(TAG, "[显示] show() - 尺寸计算完成");
-            }
-        });
+    /**
+     * 显示loading并返回凭证，多个并发请求各自持有一个凭证，
+     * 所有凭证都释放后loading才会隐藏
+     */
+    @NonNull
+    public LoadingToken acquire(String text) {
+        return acquire(text, 0);
+    }
 
-        // 注册生命周期监听（避免重复注册）
-        if (!isLifecycleRegistered) {
-            registerLifecycleListener(target);
-            isLifecycleRegistered = true;
-            Log.d(TAG, "[显示] show() - 生命周期监听已注册");
-        } else {
-            Log.d(TAG, "[显示] show() - 生命周期监听已存在，跳过注册");
+    /**
+     * 显示loading并返回凭证
+     * @param text 文字提示，为null时保持当前文字
+     * @param timeoutMs 超时时间，超时后凭证自动释放，0表示不超时
+     */
+    @NonNull
+    public LoadingToken acquire(String text, long timeoutMs) {
+        LoadingToken token = new LoadingToken(this, tokenGeneration);
+        activeTokens++;
+        if (timeoutMs > 0) {
+            mainHandler.postDelayed(token.timeoutRunnable, timeoutMs);
+        }
+        show(text);
+        return token;
+    }
+
+    /**
+     * 释放凭证（由LoadingToken.release()调用）
+     */
+    void releaseToken(LoadingToken token) {
+        mainHandler.removeCallbacks(token.timeoutRunnable);
+        if (token.getGeneration() != tokenGeneration || activeTokens == 0) {
+            return; // 凭证已经随页面销毁失效
         }
+        activeTokens--;
+        if (activeTokens == 0) {
+            hide();
+        }
+    }
+
+    /**
+     * 后台线程释放凭证时切换到主线程
+     */
+    void postReleaseToken(LoadingToken token) {
+        mainHandler.post(() -> releaseToken(token));
     }
 
     /**
-     * 隐藏loading
+     * 未释放的凭证数量
+     */
+    public int getActiveTokenCount() {
+        return activeTokens;
+    }
+
+    /**
+     * 丢弃所有未释放的凭证
+     */
+    private void invalidateTokens() {
+        activeTokens = 0;
+        tokenGeneration++;
+    }
+
+    /**
+     * 隐藏loading（遵循显示策略：还没显示则取消显示，显示时间不足最短显示时长则延后隐藏）
+     * 还有未释放的凭证时不会隐藏
      */
     public void hide() {
+        if (activeTokens > 0) {
+            if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+                Logger.d(TAG, "[隐藏] hide() - 还有" + activeTokens + "个凭证未释放，保持显示");
+            }
+            return;
+        }
+        if (delayedShowPosted) {
+            // 还没真正显示，直接取消，不修改View树
+            cancelDelayedShow();
+            return;
+        }
+        if (!isShowing()) {
+            return;
+        }
+        long remaining = minShowTimeMs - (SystemClock.uptimeMillis() - shownAtMs);
+        if (minShowTimeMs > 0 && remaining > 0) {
+            if (!delayedHidePosted) {
+                delayedHidePosted = true;
+                mainHandler.postDelayed(delayedHide, remaining);
+            }
+            return;
+        }
+        performHide(LoadingTelemetry.CAUSE_HIDE);
+    }
+
+    /**
+     * 立即隐藏loading，忽略显示策略（页面暂停/销毁时使用）
+     * @param cause 隐藏原因，见 LoadingTelemetry.CAUSE_*
+     */
+    private void hideImmediately(int cause) {
+        cancelDelayedShow();
+        cancelDelayedHide();
+        performHide(cause);
+    }
+
+    private void cancelDelayedShow() {
+        if (delayedShowPosted) {
+            mainHandler.removeCallbacks(delayedShow);
+            delayedShowPosted = false;
+        }
+        pendingText = null;
+    }
+
+    private void cancelDelayedHide() {
+        if (delayedHidePosted) {
+            mainHandler.removeCallbacks(delayedHide);
+            delayedHidePosted = false;
+        }
+    }
+
+    /**
+     * 真正隐藏loading
+     */
+    private void performHide(int cause) {
+        Tracer.begin("LoadingManager#hide");
+        try {
+            hideLoadingView(cause);
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private void hideLoadingView(int cause) {
+        recordHidden(cause);
+        if (presentationMode == MODE_PERSISTENT_LAYER && loadingView != null && loadingView.getParent() != null) {
+            // 常驻图层：只隐藏，不从父容器移除；INVISIBLE 不会触发父容器重新布局
+            if (loadingView.getVisibility() == View.VISIBLE) {
+                loadingView.setVisibility(View.INVISIBLE);
+                Logger.d(TAG, "[隐藏] hide() - 常驻图层已隐藏");
+            }
+            return;
+        }
+        detachLoadingView();
+    }
+
+    /**
+     * 记录本次显示的时长（没有设置LoadingTelemetry回调时不记录）
+     */
+    private void recordHidden(int cause) {
+        if (shownAtMs >= 0 && LoadingTelemetry.isEnabled()) {
+            LoadingTelemetry.record(hostClass, cause, SystemClock.uptimeMillis() - shownAtMs);
+        }
+        shownAtMs = -1;
+    }
+
+    /**
+     * 从父容器移除LoadingView并放回缓存池
+     */
+    private void detachLoadingView() {
         if (loadingView != null && loadingView.getParent() != null) {
             ViewGroup parent = (ViewGroup) loadingView.getParent();
-            Log.d(TAG, "[隐藏] hide() - 开始隐藏Loading, 父容器: " + parent.getClass().getSimpleName());
+            if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+                Logger.d(TAG, "[隐藏] hide() - 开始隐藏Loading, 父容器: " + parent.getClass().getSimpleName());
+            }
             parent.removeView(loadingView);
-            Log.d(TAG, "[隐藏] hide() - LoadingView已从父容器移除");
+            Logger.d(TAG, "[隐藏] hide() - LoadingView已从父容器移除");
+            // 放回缓存池，下次show()时（可能是其他页面）复用
+            LoadingViewPool.release(loadingView);
+            loadingView = null;
         } else {
-            Log.d(TAG, "[隐藏] hide() - LoadingView不存在或未添加到父容器");
+            Logger.d(TAG, "[隐藏] hide() - LoadingView不存在或未添加到父容器");
         }
         // 注意：不在这里取消注册生命周期监听，让生命周期自动处理
-        // loadingView对象保留，以便下次show()时复用
+    }
+
+    /**
+     * 获取target的Context
+     */
+    @Nullable
+    private static Context getTargetContext(Object target) {
+        if (target instanceof Activity) {
+            return (Activity) target;
+        } else if (target instanceof Fragment) {
+            return ((Fragment) target).getContext();
+        } else if (target instanceof View) {
+            return ((View) target).getContext();
+        }
+        return null;
     }
 
     /**
@@ -190,87 +489,43 @@ public class LoadingManager {
     }
 
     /**
-     * 初始化生命周期观察者
+     * 宿主暂停/停止（由LoadingRegistry分发）
+     * View的宿主是所在的Activity，只在宿主销毁时处理
+     * @param cause {@link LoadingTelemetry#CAUSE_PAUSE} 或 {@link LoadingTelemetry#CAUSE_STOP}
      */
-    private void initLifecycleObserver() {
-        lifecycleObserver = (source, event) -> {
-            Log.d(TAG, "[生命周期] 生命周期事件: " + event.name() + ", Source: " + source.getClass().getSimpleName());
-            if (event == Lifecycle.Event.ON_PAUSE || 
-                event == Lifecycle.Event.ON_STOP || 
-                event == Lifecycle.Event.ON_DESTROY) {
-                Log.d(TAG, "[生命周期] 自动隐藏Loading - 事件: " + event.name());
-                hide();
-            }
-        };
-
-        activityLifecycleCallbacks = new Application.ActivityLifecycleCallbacks() {
-            @Override
-            public void onActivityPaused(@NonNull Activity activity) {
-                Object target = targetRef.get();
-                if (target == activity) {
-                    Log.d(TAG, "[生命周期] onActivityPaused() - 自动隐藏Loading: " + activity.getClass().getSimpleName());
-                    hide();
-                }
-            }
-
-            @Override
-            public void onActivityStopped(@NonNull Activity activity) {
-                Object target = targetRef.get();
-                if (target == activity) {
-                    Log.d(TAG, "[生命周期] onActivityStopped() - 自动隐藏Loading: " + activity.getClass().getSimpleName());
-                    hide();
-                }
-            }
-
-            @Override
-            public void onActivityDestroyed(@NonNull Activity activity) {
-                Object target = targetRef.get();
-                if (target == activity) {
-                    Log.d(TAG, "[生命周期] onActivityDestroyed() - 自动隐藏并清理Loading: " + activity.getClass().getSimpleName());
-                    hide();
-                    unregisterLifecycleListener();
-                }
-            }
-
-            @Override
-            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
-
-            @Override
-            public void onActivityStarted(@NonNull Activity activity) {}
+    void onHostPaused(int cause) {
+        if (targetRef.get() instanceof View) {
+            return;
+        }
+        Logger.d(TAG, "[生命周期] onHostPaused() - 自动隐藏Loading");
+        hideImmediately(cause);
+    }
 
-            @Override
-            public void onActivityResumed(@NonNull Activity activity) {}
+    /**
+     * 宿主销毁（由LoadingRegistry分发，此时已从注册表中移除）
+     */
+    void onHostDestroyed() {
+        Logger.d(TAG, "[生命周期] onHostDestroyed() - 自动隐藏并清理Loading");
+        isLifecycleRegistered = false;
+        hideImmediately(LoadingTelemetry.CAUSE_DESTROY);
+        invalidateTokens();
+        // 常驻图层也要在销毁时移除，避免持有已销毁页面的View树
+        detachLoadingView();
+    }
 
-            @Override
-            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
-        };
+    /**
+     * 获取target，已被回收时返回null
+     */
+    @Nullable
+    Object getTarget() {
+        return targetRef.get();
     }
 
     /**
      * 注册生命周期监听
      */
     private void registerLifecycleListener(Object target) {
-        if (target instanceof LifecycleOwner) {
-            LifecycleOwner lifecycleOwner = (LifecycleOwner) target;
-            if (lifecycleObserver != null) {
-                lifecycleOwner.getLifecycle().addObserver(lifecycleObserver);
-                Log.d(TAG, "[生命周期] registerLifecycleListener() - 注册LifecycleOwner监听: " + target.getClass().getSimpleName());
-            }
-        } else if (target instanceof Activity) {
-            Activity activity = (Activity) target;
-            Application application = activity.getApplication();
-            if (application != null && activityLifecycleCallbacks != null) {
-                application.registerActivityLifecycleCallbacks(activityLifecycleCallbacks);
-                Log.d(TAG, "[生命周期] registerLifecycleListener() - 注册Activity生命周期回调: " + activity.getClass().getSimpleName());
-            }
-        } else if (target instanceof Fragment) {
-            Fragment fragment = (Fragment) target;
-            // Fragment本身也是LifecycleOwner
-            if (fragment instanceof LifecycleOwner && lifecycleObserver != null) {
-                ((LifecycleOwner) fragment).getLifecycle().addObserver(lifecycleObserver);
-                Log.d(TAG, "[生命周期] registerLifecycleListener() - 注册Fragment生命周期监听: " + fragment.getClass().getSimpleName());
-            }
-        }
+        LoadingRegistry.register(this, target);
     }
 
     /**
@@ -278,36 +533,10 @@ public class LoadingManager {
      */
     private void unregisterLifecycleListener() {
         if (!isLifecycleRegistered) {
-            Log.d(TAG, "[生命周期] unregisterLifecycleListener() - 生命周期监听未注册，跳过");
+            Logger.d(TAG, "[生命周期] unregisterLifecycleListener() - 生命周期监听未注册，跳过");
             return;
         }
-
-        Object target = targetRef.get();
-        if (target == null) {
-            Log.d(TAG, "[生命周期] unregisterLifecycleListener() - Target已被回收");
-            isLifecycleRegistered = false;
-            return;
-        }
-
-        if (target instanceof LifecycleOwner && lifecycleObserver != null) {
-            LifecycleOwner lifecycleOwner = (LifecycleOwner) target;
-            lifecycleOwner.getLifecycle().removeObserver(lifecycleObserver);
-            Log.d(TAG, "[生命周期] unregisterLifecycleListener() - 取消注册LifecycleOwner监听: " + target.getClass().getSimpleName());
-        } else if (target instanceof Activity && activityLifecycleCallbacks != null) {
-            Activity activity = (Activity) target;
-            Application application = activity.getApplication();
-            if (application != null) {
-                application.unregisterActivityLifecycleCallbacks(activityLifecycleCallbacks);
-                Log.d(TAG, "[生命周期] unregisterLifecycleListener() - 取消注册Activity生命周期回调: " + activity.getClass().getSimpleName());
-            }
-        } else if (target instanceof Fragment) {
-            Fragment fragment = (Fragment) target;
-            if (fragment instanceof LifecycleOwner && lifecycleObserver != null) {
-                ((LifecycleOwner) fragment).getLifecycle().removeObserver(lifecycleObserver);
-                Log.d(TAG, "[生命周期] unregisterLifecycleListener() - 取消注册Fragment生命周期监听: " + fragment.getClass().getSimpleName());
-            }
-        }
-        
+        LoadingRegistry.unregister(this);
         isLifecycleRegistered = false;
     }
 
@@ -315,15 +544,17 @@ public class LoadingManager {
      * 释放资源
      */
     public void release() {
-        Log.d(TAG, "[释放] release() - 开始释放LoadingManager资源");
-        hide();
+        Logger.d(TAG, "[释放] release() - 开始释放LoadingManager资源");
+        cancelDelayedShow();
+        cancelDelayedHide();
+        invalidateTokens();
+        recordHidden(LoadingTelemetry.CAUSE_RELEASE);
+        detachLoadingView();
         unregisterLifecycleListener();
         isLifecycleRegistered = false;
         targetRef.clear();
         loadingView = null;
-        lifecycleObserver = null;
-        activityLifecycleCallbacks = null;
-        Log.d(TAG, "[释放] release() - LoadingManager资源已释放");
+        Logger.d(TAG, "[释放] release() - LoadingManager资源已释放");
     }
 }
 
@@ -0,0 +1,258 @@
+package com.example.loading;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Bundle;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+
+import com.example.logger.Logger;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.WeakHashMap;
+
+/**
+ * LoadingManager生命周期注册表
+ *
+ * 整个进程只注册一个 Application.ActivityLifecycleCallbacks，所有Fragment共用一个 LifecycleEventObserver，
+ * 按宿主（Activity或Fragment）索引LoadingManager，生命周期事件直接查表分发给该宿主的Manager，
+ * 不需要遍历所有Manager，分发耗时和Manager数量无关。
+ *
+ * 宿主销毁时自动移除它的所有Manager，以及 Loading 缓存的这些Manager的target。
+ * View的宿主是它所在的Fragment（不在Fragment中时是所在的Activity），宿主销毁时才移除；
+ * View从窗口分离不会释放loading（RecyclerView回收、ViewPager离屏页面、重新添加到其他父容器都会暂时分离）。
+ * Loading 缓存的target是弱引用，target被回收后对应的Manager也会被移除，没有宿主的View也不会一直留在注册表中。
+ *
+ * 所有方法都需要在主线程调用。
+ */
+final class LoadingRegistry {
+    private static final String TAG = "LoadingRegistry";
+
+    // 宿主 -> 该宿主下的Manager
+    private static final IdentityHashMap<Object, ArrayList<LoadingManager>> managersByHost = new IdentityHashMap<>();
+    // Manager -> 宿主，用于取消注册
+    private static final IdentityHashMap<LoadingManager, Object> hostByManager = new IdentityHashMap<>();
+    // Loading工具类缓存的 target -> Manager（弱引用target；Activity、Fragment、View都按对象本身比较）
+    private static final WeakHashMap<Object, LoadingManager> managersByTarget = new WeakHashMap<>();
+    private static boolean activityCallbacksInstalled = false;
+
+    private static final LifecycleEventObserver fragmentObserver = (source, event) -> {
+        if (event == Lifecycle.Event.ON_PAUSE) {
+            dispatchPaused(source, LoadingTelemetry.CAUSE_PAUSE);
+        } else if (event == Lifecycle.Event.ON_STOP) {
+            dispatchPaused(source, LoadingTelemetry.CAUSE_STOP);
+        } else if (event == Lifecycle.Event.ON_DESTROY) {
+            source.getLifecycle().removeObserver(LoadingRegistry.fragmentObserver);
+            dispatchDestroyed(source);
+        }
+    };
+
+    private static final Application.ActivityLifecycleCallbacks activityCallbacks = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+            dispatchPaused(activity, LoadingTelemetry.CAUSE_PAUSE);
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+            dispatchPaused(activity, LoadingTelemetry.CAUSE_STOP);
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+            dispatchDestroyed(activity);
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+    };
+
+    private LoadingRegistry() {
+    }
+
+    /**
+     * 注册Manager，重复注册无副作用
+     * @return 是否找到了宿主（没有宿主的Manager不会收到生命周期事件）
+     */
+    static boolean register(@NonNull LoadingManager manager, @NonNull Object target) {
+        if (hostByManager.containsKey(manager)) {
+            return true;
+        }
+        Object host = findHost(target);
+        if (host == null) {
+            if (Logger.isLoggable(Logger.WARN)) {
+                Logger.w(TAG, "[注册] register() - 没有找到宿主: " + target.getClass().getSimpleName());
+            }
+            return false;
+        }
+        ArrayList<LoadingManager> managers = managersByHost.get(host);
+        if (managers == null) {
+            managers = new ArrayList<>(2);
+            managersByHost.put(host, managers);
+            if (host instanceof Fragment) {
+                ((Fragment) host).getLifecycle().addObserver(fragmentObserver);
+            } else {
+                installActivityCallbacks((Activity) host);
+            }
+        }
+        managers.add(manager);
+        hostByManager.put(manager, host);
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[注册] register() - 宿主: " + host.getClass().getSimpleName() + ", 该宿主Manager数量: " + managers.size());
+        }
+        return true;
+    }
+
+    /**
+     * 取消注册Manager
+     */
+    static void unregister(@NonNull LoadingManager manager) {
+        Object host = hostByManager.remove(manager);
+        if (host == null) {
+            return;
+        }
+        ArrayList<LoadingManager> managers = managersByHost.get(host);
+        if (managers != null) {
+            managers.remove(manager);
+            if (managers.isEmpty()) {
+                managersByHost.remove(host);
+                if (host instanceof Fragment) {
+                    ((Fragment) host).getLifecycle().removeObserver(fragmentObserver);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取Loading工具类缓存的Manager
+     */
+    @Nullable
+    static LoadingManager getManager(@NonNull Object target) {
+        return managersByTarget.get(target);
+    }
+
+    /**
+     * 缓存target对应的Manager，宿主销毁或target被回收时自动移除
+     */
+    static void putManager(@NonNull Object target, @NonNull LoadingManager manager) {
+        managersByTarget.put(target, manager);
+    }
+
+    /**
+     * 移除target对应的Manager
+     */
+    @Nullable
+    static LoadingManager removeManager(@NonNull Object target) {
+        return managersByTarget.remove(target);
+    }
+
+    /**
+     * 清空Loading工具类缓存的所有Manager
+     * @return 清理的数量
+     */
+    static int clearManagers() {
+        int size = managersByTarget.size();
+        managersByTarget.clear();
+        return size;
+    }
+
+    static int getCachedManagerCount() {
+        return managersByTarget.size();
+    }
+
+    private static void dispatchPaused(Object host, int cause) {
+        ArrayList<LoadingManager> managers = managersByHost.get(host);
+        if (managers == null) {
+            return;
+        }
+        for (int i = 0; i < managers.size(); i++) {
+            managers.get(i).onHostPaused(cause);
+        }
+    }
+
+    private static void dispatchDestroyed(Object host) {
+        ArrayList<LoadingManager> managers = managersByHost.remove(host);
+        if (managers == null) {
+            return;
+        }
+        if (Logger.ENABLED && Logger.isLoggable(Logger.DEBUG)) {
+            Logger.d(TAG, "[销毁] dispatchDestroyed() - 宿主: " + host.getClass().getSimpleName() + ", 移除Manager数量: " + managers.size());
+        }
+        for (int i = 0; i < managers.size(); i++) {
+            LoadingManager manager = managers.get(i);
+            hostByManager.remove(manager);
+            Object target = manager.getTarget();
+            if (target != null && managersByTarget.get(target) == manager) {
+                removeManager(target);
+                Loading.onManagerEvicted(manager);
+            }
+            manager.onHostDestroyed();
+        }
+    }
+
+    private static void installActivityCallbacks(Activity activity) {
+        if (activityCallbacksInstalled) {
+            return;
+        }
+        Application application = activity.getApplication();
+        if (application != null) {
+            application.registerActivityLifecycleCallbacks(activityCallbacks);
+            activityCallbacksInstalled = true;
+            Logger.d(TAG, "[注册] installActivityCallbacks() - 已注册全局Activity生命周期回调");
+        }
+    }
+
+    /**
+     * 查找target的宿主：Activity和Fragment是自己的宿主，View的宿主是所在的Fragment，不在Fragment中时是所在的Activity
+     */
+    @Nullable
+    static Object findHost(Object target) {
+        if (target instanceof Activity || target instanceof Fragment) {
+            return target;
+        }
+        if (target instanceof View) {
+            View view = (View) target;
+            Fragment fragment = findFragment(view);
+            return fragment != null ? fragment : findActivity(view.getContext());
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Fragment findFragment(View view) {
+        try {
+            return FragmentManager.findFragment(view);
+        } catch (IllegalStateException e) {
+            return null; // 不在Fragment的View层级中
+        }
+    }
+
+    @Nullable
+    private static Activity findActivity(Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return (Activity) context;
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.loading;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Loading显示时长统计（可选）
+ *
+ * 记录每次loading从真正显示到隐藏的时长和隐藏原因，按宿主类（Activity/Fragment的类，View使用所在Fragment或Activity的类）
+ * 汇总到直方图中，用来找出哪些页面让用户长时间看着loading。
+ *
+ * 每个宿主类的直方图第一次记录时创建，之后的记录只是数组计数，不分配内存；
+ * 累计 {@link #setFlushThreshold(int)} 次记录后（或手动调用 {@link #flush()}）批量回调给 {@link Listener}，回调后计数清零。
+ *
+ * 没有设置Listener时不做任何记录。所有方法都需要在主线程调用。
+ */
+public final class LoadingTelemetry {
+
+    /** 隐藏原因：调用hide()（包括最后一个凭证释放） */
+    public static final int CAUSE_HIDE = 0;
+    /** 隐藏原因：宿主ON_PAUSE自动隐藏 */
+    public static final int CAUSE_PAUSE = 1;
+    /** 隐藏原因：宿主ON_STOP自动隐藏 */
+    public static final int CAUSE_STOP = 2;
+    /** 隐藏原因：宿主ON_DESTROY自动隐藏 */
+    public static final int CAUSE_DESTROY = 3;
+    /** 隐藏原因：调用release()或切换显示方式 */
+    public static final int CAUSE_RELEASE = 4;
+    private static final int CAUSE_COUNT = 5;
+
+    // 直方图桶的上界（毫秒，包含），最后一个桶记录超过最大上界的时长
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {100, 250, 500, 1000, 2000, 3000, 5000, 10000, 30000};
+    private static final int DEFAULT_FLUSH_THRESHOLD = 50;
+
+    /**
+     * 批量回调接口
+     */
+    public interface Listener {
+        /**
+         * 批量回调统计结果，只包含上次回调以来有记录的宿主
+         * 回调返回后计数会被清零，需要保存的数据请在回调中复制
+         */
+        void onFlush(@NonNull List<HostHistogram> histograms);
+    }
+
+    /**
+     * 单个宿主类的显示时长直方图
+     */
+    public static final class HostHistogram {
+        private final Class<?> hostClass;
+        private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS_MS.length + 1];
+        private final long[] causeCounts = new long[CAUSE_COUNT];
+        private long count;
+        private long totalMs;
+        private long maxMs;
+
+        HostHistogram(Class<?> hostClass) {
+            this.hostClass = hostClass;
+        }
+
+        void record(int cause, long durationMs) {
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_BOUNDS_MS.length && durationMs > BUCKET_UPPER_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            bucketCounts[bucket]++;
+            causeCounts[cause]++;
+            count++;
+            totalMs += durationMs;
+            if (durationMs > maxMs) {
+                maxMs = durationMs;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < bucketCounts.length; i++) {
+                bucketCounts[i] = 0;
+            }
+            for (int i = 0; i < causeCounts.length; i++) {
+                causeCounts[i] = 0;
+            }
+            count = 0;
+            totalMs = 0;
+            maxMs = 0;
+        }
+
+        /**
+         * 宿主类
+         */
+        @NonNull
+        public Class<?> getHostClass() {
+            return hostClass;
+        }
+
+        /**
+         * 桶的数量
+         */
+        public int getBucketCount() {
+            return bucketCounts.length;
+        }
+
+        /**
+         * 桶的上界（毫秒，包含），最后一个桶返回 Long.MAX_VALUE
+         */
+        public long getBucketUpperBoundMs(int bucket) {
+            return bucket < BUCKET_UPPER_BOUNDS_MS.length ? BUCKET_UPPER_BOUNDS_MS[bucket] : Long.MAX_VALUE;
+        }
+
+        /**
+         * 落在指定桶中的次数
+         */
+        public long getBucketCount(int bucket) {
+            return bucketCounts[bucket];
+        }
+
+        /**
+         * 指定原因的隐藏次数
+         * @param cause {@link #CAUSE_HIDE} 等
+         */
+        public long getCauseCount(int cause) {
+            return causeCounts[cause];
+        }
+
+        /**
+         * 记录次数
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 总显示时长（毫秒）
+         */
+        public long getTotalMs() {
+            return totalMs;
+        }
+
+        /**
+         * 最长显示时长（毫秒）
+         */
+        public long getMaxMs() {
+            return maxMs;
+        }
+    }
+
+    private static Listener listener;
+    private static int flushThreshold = DEFAULT_FLUSH_THRESHOLD;
+    private static int pendingRecords;
+    private static final HashMap<Class<?>, HostHistogram> histograms = new HashMap<>();
+    private static final ArrayList<HostHistogram> flushBuffer = new ArrayList<>();
+    private static final List<HostHistogram> flushView = Collections.unmodifiableList(flushBuffer);
+
+    private LoadingTelemetry() {
+    }
+
+    /**
+     * 设置回调，为null时关闭统计并丢弃已有数据
+     */
+    public static void setListener(@Nullable Listener listener) {
+        LoadingTelemetry.listener = listener;
+        if (listener == null) {
+            histograms.clear();
+            pendingRecords = 0;
+        }
+    }
+
+    /**
+     * 设置累计多少次记录后自动回调
+     */
+    public static void setFlushThreshold(int threshold) {
+        flushThreshold = Math.max(1, threshold);
+    }
+
+    static boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * 记录一次显示
+     * @param hostClass 宿主类
+     * @param cause 隐藏原因
+     * @param durationMs 显示时长
+     */
+    static void record(@NonNull Class<?> hostClass, int cause, long durationMs) {
+        if (listener == null) {
+            return;
+        }
+        HostHistogram histogram = histograms.get(hostClass);
+        if (histogram == null) {
+            histogram = new HostHistogram(hostClass);
+            histograms.put(hostClass, histogram);
+        }
+        histogram.record(cause, Math.max(0, durationMs));
+        if (++pendingRecords >= flushThreshold) {
+            flush();
+        }
+    }
+
+    /**
+     * 立即回调所有未回调的统计结果（例如应用进入后台时）
+     */
+    public static void flush() {
+        Listener current = listener;
+        pendingRecords = 0;
+        if (current == null) {
+            return;
+        }
+        for (HostHistogram histogram : histograms.values()) {
+            if (histogram.count > 0) {
+                flushBuffer.add(histogram);
+            }
+        }
+        if (flushBuffer.isEmpty()) {
+            return;
+        }
+        try {
+            current.onFlush(flushView);
+        } finally {
+            for (int i = 0; i < flushBuffer.size(); i++) {
+                flushBuffer.get(i).reset();
+            }
+            flushBuffer.clear();
+        }
+    }
+}
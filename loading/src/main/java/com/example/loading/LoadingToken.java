@@ -0,0 +1,97 @@
+package com.example.loading;
+
+import android.os.Looper;
+
+/**
+ * Loading显示凭证
+ *
+ * 每次 {@link LoadingManager#acquire(String)} 返回一个凭证，同一个页面的所有凭证共用一个LoadingView，
+ * 只有所有凭证都释放（或超时）后loading才会隐藏。重复释放无副作用。
+ *
+ * 在后台线程调用 Loading.acquire() 时先返回一个延后凭证，主线程执行acquire后指向真正的凭证；
+ * 在此之前释放的延后凭证不会显示loading。
+ */
+public final class LoadingToken {
+    /**
+     * 空凭证：宿主无效（例如Activity已销毁）时返回，释放无任何效果
+     */
+    static final LoadingToken EMPTY = new LoadingToken(null, 0);
+
+    private final LoadingManager manager;
+    private final int generation; // 创建时manager的代数，页面销毁后旧凭证自动失效
+    private final boolean deferred;
+    private LoadingToken delegate; // 延后凭证在主线程acquire后指向的真正凭证，由this同步
+    private volatile boolean released;
+    final Runnable timeoutRunnable = this::release;
+
+    LoadingToken(LoadingManager manager, int generation) {
+        this.manager = manager;
+        this.generation = generation;
+        this.deferred = false;
+        this.released = manager == null;
+    }
+
+    private LoadingToken() {
+        this.manager = null;
+        this.generation = 0;
+        this.deferred = true;
+    }
+
+    /**
+     * 后台线程acquire时返回的延后凭证
+     */
+    static LoadingToken deferred() {
+        return new LoadingToken();
+    }
+
+    /**
+     * 主线程执行acquire后关联真正的凭证
+     * @return false表示延后凭证已经释放，调用方需要释放真正的凭证
+     */
+    boolean attach(LoadingToken token) {
+        synchronized (this) {
+            if (released) {
+                return false;
+            }
+            delegate = token;
+            return true;
+        }
+    }
+
+    /**
+     * 释放凭证，最后一个凭证释放时隐藏loading，可以在任意线程调用
+     */
+    public void release() {
+        LoadingToken target;
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            released = true;
+            target = delegate;
+        }
+        if (deferred) {
+            // 还没关联时主线程会在acquire前看到已释放，直接跳过
+            if (target != null) {
+                target.release();
+            }
+            return;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            manager.releaseToken(this);
+        } else {
+            manager.postReleaseToken(this);
+        }
+    }
+
+    /**
+     * 是否已经释放
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+}
@@ -1,25 +1,50 @@
 package com.example.loading;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
-import android.view.ViewGroup;
+import android.view.accessibility.AccessibilityNodeInfo;
 import android.widget.FrameLayout;
-import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-
+import androidx.core.content.ContextCompat;
+
+import com.example.logger.Logger;
+import com.example.logger.Tracer;
+
+/**
+ * Loading视图
+ *
+ * 遮罩层、黑色loading背景和loading动画都由自己绘制，只有文字是子视图，
+ * 所有尺寸都在 onMeasure/onLayout 中计算，显示时只需要一次测量和布局，不需要post回调或修改LayoutParams。
+ *
+ * loading动画是 AnimatedVectorDrawable（R.drawable.loading_spinner），在 Android 7.1 及以上由 RenderThread 驱动，
+ * 主线程卡顿几百毫秒时动画也不会停；只在View可见时运行。
+ *
+ * loading动画是绘制出来的，无障碍服务看不到ProgressBar，所以由本View以ProgressBar的身份提供无障碍信息，
+ * 描述为loading文字（没有文字时为"加载中"），显示时主动播报。
+ */
 public class LoadingView extends FrameLayout {
     private static final String TAG = "LoadingView";
-    private ProgressBar progressBar;
+    private static final int SCRIM_COLOR = 0x80000000; // 遮罩层颜色
+
     private TextView textView;
-    private LinearLayout loadingContainer;
-    private boolean isSizeCalculated = false;
+    private Drawable containerBackground; // 黑色loading背景
+    private Drawable spinner;             // loading动画
+    private int minContainerSize;
+    private int minSpinnerSize;           // loading动画最小尺寸
+    private int minContainerPadding;      // 黑色背景最小内边距
+    private int spinnerMarginBottom;      // loading动画和文字的间距
+    private int containerSize;
+    private int containerPadding;
+    private int spinnerSize;
 
     public LoadingView(@NonNull Context context) {
         this(context, null);
@@ -35,114 +60,139 @@ public class LoadingView extends FrameLayout {
     }
 
     private void init() {
-        Log.d(TAG, "[创建] init() - 初始化LoadingView");
+        Logger.d(TAG, "[创建] init() - 初始化LoadingView");
         LayoutInflater.from(getContext()).inflate(R.layout.loading_view, this, true);
-        progressBar = findViewById(R.id.progress_bar);
         textView = findViewById(R.id.tv_loading_text);
-        loadingContainer = findViewById(R.id.loading_container);
-        Log.d(TAG, "[创建] init() - LoadingView初始化完成");
+        // 文字合并到本View的无障碍描述中，不单独朗读
+        textView.setImportantForAccessibility(IMPORTANT_FOR_ACCESSIBILITY_NO);
+        containerBackground = ContextCompat.getDrawable(getContext(), R.drawable.loading_background);
+        // 每个LoadingView使用独立的动画状态
+        spinner = ContextCompat.getDrawable(getContext(), R.drawable.loading_spinner).mutate();
+        spinner.setCallback(this);
+        minContainerSize = getResources().getDimensionPixelSize(R.dimen.loading_container_min_size);
+        spinnerMarginBottom = getResources().getDimensionPixelSize(R.dimen.loading_spinner_margin_bottom);
+        minSpinnerSize = getResources().getDimensionPixelSize(R.dimen.loading_spinner_min_size);
+        minContainerPadding = getResources().getDimensionPixelSize(R.dimen.loading_container_min_padding);
+        // 遮罩层全覆盖并拦截点击
+        setBackgroundColor(SCRIM_COLOR);
+        setClickable(true);
+        setFocusable(true);
+        setWillNotDraw(false);
+        Logger.d(TAG, "[创建] init() - LoadingView初始化完成");
     }
 
+    /**
+     * 根据自身大小计算loading背景和动画的尺寸
+     * 规则：
+     * 1. 遮罩层全覆盖（match_parent）
+     * 2. 黑色loading背景：宽高相同，宽度为持有者的1/3
+     * 3. 内部loading动画：大小为黑色loading背景的1/2
+     */
     @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        super.onSizeChanged(w, h, oldw, oldh);
-        Log.d(TAG, "[尺寸] onSizeChanged() - 尺寸变化: " + oldw + "x" + oldh + " -> " + w + "x" + h);
-        if (w > 0 && h > 0) {
-            // 每次尺寸变化时都重新计算，确保尺寸一致
-            calculateAndSetSizes(w, h);
-            isSizeCalculated = true;
-            Log.d(TAG, "[尺寸] onSizeChanged() - 尺寸计算完成");
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        Tracer.begin("LoadingView#onMeasure");
+        try {
+            measureLoading(widthMeasureSpec, heightMeasureSpec);
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private void measureLoading(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec);
+        setMeasuredDimension(width, height);
+
+        containerSize = Math.max(width / 3, minContainerSize);
+        containerPadding = Math.max(containerSize / 8, minContainerPadding);
+        spinnerSize = Math.max(containerSize / 2, minSpinnerSize);
+        int contentSize = Math.max(containerSize - containerPadding * 2, 0);
+
+        if (textView.getVisibility() != GONE) {
+            int textHeight = Math.max(contentSize - spinnerSize - spinnerMarginBottom, 0);
+            textView.measure(
+                    MeasureSpec.makeMeasureSpec(contentSize, MeasureSpec.AT_MOST),
+                    MeasureSpec.makeMeasureSpec(textHeight, MeasureSpec.AT_MOST));
         }
     }
 
     @Override
-    protected void onAttachedToWindow() {
-        super.onAttachedToWindow();
-        Log.d(TAG, "[窗口] onAttachedToWindow() - LoadingView已添加到窗口");
-        // 每次添加到窗口后都重新计算尺寸，确保尺寸一致
-        // 使用post确保在布局完成后才计算尺寸
-        post(() -> {
-            if (getWidth() > 0 && getHeight() > 0) {
-                Log.d(TAG, "[窗口] onAttachedToWindow() - 首次尺寸计算: " + getWidth() + "x" + getHeight());
-                calculateAndSetSizes(getWidth(), getHeight());
-                isSizeCalculated = true;
-            } else {
-                // 如果尺寸还是0，再延迟一次
-                post(() -> {
-                    if (getWidth() > 0 && getHeight() > 0) {
-                        Log.d(TAG, "[窗口] onAttachedToWindow() - 延迟尺寸计算: " + getWidth() + "x" + getHeight());
-                        calculateAndSetSizes(getWidth(), getHeight());
-                        isSizeCalculated = true;
-                    }
-                });
-            }
-        });
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        int width = right - left;
+        int height = bottom - top;
+        int containerLeft = (width - containerSize) / 2;
+        int containerTop = (height - containerSize) / 2;
+        containerBackground.setBounds(containerLeft, containerTop,
+                containerLeft + containerSize, containerTop + containerSize);
+
+        // loading动画和文字在黑色背景中垂直居中
+        boolean hasText = textView.getVisibility() != GONE;
+        int contentHeight = spinnerSize;
+        if (hasText) {
+            contentHeight += spinnerMarginBottom + textView.getMeasuredHeight();
+        }
+        int childTop = containerTop + (containerSize - contentHeight) / 2;
+        int spinnerLeft = (width - spinnerSize) / 2;
+        spinner.setBounds(spinnerLeft, childTop, spinnerLeft + spinnerSize, childTop + spinnerSize);
+        if (hasText) {
+            childTop += spinnerSize + spinnerMarginBottom;
+            int textLeft = (width - textView.getMeasuredWidth()) / 2;
+            textView.layout(textLeft, childTop,
+                    textLeft + textView.getMeasuredWidth(), childTop + textView.getMeasuredHeight());
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        containerBackground.draw(canvas);
+        spinner.draw(canvas);
     }
 
     @Override
-    protected void onDetachedFromWindow() {
-        super.onDetachedFromWindow();
-        Log.d(TAG, "[窗口] onDetachedFromWindow() - LoadingView已从窗口移除");
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == spinner || super.verifyDrawable(who);
     }
 
     /**
-     * 根据父容器大小计算并设置loading容器和动画的尺寸
-     * 规则：
-     * 1. 遮罩层全覆盖（已通过match_parent实现）
-     * 2. 黑色loading背景：宽高相同，宽度为持有者的1/3
-     * 3. 内部loading动画：大小为黑色loading背景的1/2
+     * 只在真正可见时运行动画（添加/移除、INVISIBLE切换、所在页面进入后台都会回调）
      */
-    private void calculateAndSetSizes(int parentWidth, int parentHeight) {
-        if (loadingContainer == null || progressBar == null) {
-            Log.w(TAG, "[尺寸] calculateAndSetSizes() - loadingContainer或progressBar为null");
-            return;
-        }
-
-        Log.d(TAG, "[尺寸] calculateAndSetSizes() - 开始计算尺寸, 父容器: " + parentWidth + "x" + parentHeight);
-
-        // 计算loading容器的尺寸：宽度为父容器宽度的1/3，宽高相同（正方形）
-        int containerSize = parentWidth / 3;
-        
-        // 确保最小尺寸
-        containerSize = Math.max(containerSize, 80);
-        Log.d(TAG, "[尺寸] calculateAndSetSizes() - 容器尺寸: " + containerSize + "x" + containerSize);
-        
-        // 设置loading容器的尺寸（强制设置，确保每次都是相同尺寸）
-        ViewGroup.LayoutParams containerParams = loadingContainer.getLayoutParams();
-        if (containerParams == null) {
-            containerParams = new FrameLayout.LayoutParams(containerSize, containerSize);
-        } else {
-            containerParams.width = containerSize;
-            containerParams.height = containerSize;
-        }
-        loadingContainer.setLayoutParams(containerParams);
-        
-        // 计算ProgressBar的尺寸：为容器尺寸的1/2
-        int progressBarSize = containerSize / 2;
-        // 确保最小尺寸
-        progressBarSize = Math.max(progressBarSize, 24);
-        Log.d(TAG, "[尺寸] calculateAndSetSizes() - ProgressBar尺寸: " + progressBarSize + "x" + progressBarSize);
-        
-        // 设置ProgressBar的尺寸（强制设置，确保每次都是相同尺寸）
-        ViewGroup.LayoutParams progressParams = progressBar.getLayoutParams();
-        if (progressParams == null) {
-            progressParams = new LinearLayout.LayoutParams(progressBarSize, progressBarSize);
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        spinner.setVisible(isVisible, false);
+        Animatable animatable = (Animatable) spinner;
+        if (isVisible) {
+            if (!animatable.isRunning()) {
+                animatable.start();
+            }
         } else {
-            progressParams.width = progressBarSize;
-            progressParams.height = progressBarSize;
+            animatable.stop();
         }
-        progressBar.setLayoutParams(progressParams);
-        
-        // 根据容器大小调整padding
-        int padding = containerSize / 8;
-        padding = Math.max(padding, 16);
-        loadingContainer.setPadding(padding, padding, padding, padding);
-        Log.d(TAG, "[尺寸] calculateAndSetSizes() - Padding: " + padding);
-        
-        // 强制请求布局，确保尺寸生效
-        loadingContainer.requestLayout();
-        progressBar.requestLayout();
-        Log.d(TAG, "[尺寸] calculateAndSetSizes() - 尺寸计算完成并请求布局");
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return ProgressBar.class.getName();
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(ProgressBar.class.getName());
+        info.setContentDescription(getAccessibilityText());
+    }
+
+    /**
+     * 通知无障碍服务loading已显示（由LoadingManager在真正显示时调用）
+     */
+    void announceShown() {
+        announceForAccessibility(getAccessibilityText());
+    }
+
+    private CharSequence getAccessibilityText() {
+        CharSequence text = textView.getVisibility() == View.VISIBLE ? textView.getText() : null;
+        return text != null && text.length() > 0 ? text : getContext().getString(R.string.loading_accessibility_description);
     }
 
     public void setLoadingText(String text) {
@@ -162,45 +212,4 @@ public class LoadingView extends FrameLayout {
             textView.setVisibility(View.GONE);
         }
     }
-
-    /**
-     * 重置尺寸计算标志，用于重新计算尺寸
-     */
-    public void resetSizeCalculation() {
-        Log.d(TAG, "[尺寸] resetSizeCalculation() - 重置尺寸计算标志");
-        isSizeCalculated = false;
-    }
-
-    /**
-     * 强制重新计算尺寸（在添加到父容器后调用）
-     */
-    public void forceRecalculateSize() {
-        Log.d(TAG, "[尺寸] forceRecalculateSize() - 强制重新计算尺寸");
-        isSizeCalculated = false;
-        if (getWidth() > 0 && getHeight() > 0) {
-            Log.d(TAG, "[尺寸] forceRecalculateSize() - 立即计算: " + getWidth() + "x" + getHeight());
-            calculateAndSetSizes(getWidth(), getHeight());
-            isSizeCalculated = true;
-        } else {
-            // 如果尺寸还没确定，等待布局完成
-            Log.d(TAG, "[尺寸] forceRecalculateSize() - 尺寸未确定，等待布局完成");
-            post(() -> {
-                if (getWidth() > 0 && getHeight() > 0) {
-                    Log.d(TAG, "[尺寸] forceRecalculateSize() - 延迟计算: " + getWidth() + "x" + getHeight());
-                    calculateAndSetSizes(getWidth(), getHeight());
-                    isSizeCalculated = true;
-                } else {
-                    // 再延迟一次
-                    post(() -> {
-                        if (getWidth() > 0 && getHeight() > 0) {
-                            Log.d(TAG, "[尺寸] forceRecalculateSize() - 二次延迟计算: " + getWidth() + "x" + getHeight());
-                            calculateAndSetSizes(getWidth(), getHeight());
-                            isSizeCalculated = true;
-                        }
-                    });
-                }
-            });
-        }
-    }
 }
-
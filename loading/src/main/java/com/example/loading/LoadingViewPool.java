@@ -0,0 +1,329 @@
+package com.example.loading;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.pm.ActivityInfo;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ContextThemeWrapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.logger.Logger;
+import com.example.logger.Tracer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 进程级的LoadingView缓存池
+ *
+ * 在主线程空闲时预先创建LoadingView，LoadingManager.show()时直接取出，hide()时放回，
+ * 避免第一次显示时（通常和网络请求、页面切换同时发生）在主线程inflate布局。
+ *
+ * 池中的View使用Application的Context加上宿主Activity的主题创建，不会持有Activity；
+ * 按主题（宿主Activity在清单中声明的主题）分别缓存，所有主题合计最多缓存 MAX_POOL_SIZE 个，
+ * 在使用不同主题的Activity之间切换时各自的View都能复用；池满时从最久没有使用的主题中淘汰一个，
+ * 保证当前主题至少有一个。配置（深色模式、屏幕密度、字体缩放、语言、布局方向）变化后丢弃按旧配置创建的View。
+ * 宿主Context是单独套了主题的ContextThemeWrapper（例如View设置了android:theme）时无法比较主题，直接用宿主Context新建，不使用池。
+ * Activity在代码中调用setTheme()切换的主题不在清单中，需要在切换后调用 {@link #clear()}。
+ *
+ * 所有方法都需要在主线程调用。
+ */
+public final class LoadingViewPool {
+    private static final String TAG = "LoadingViewPool";
+    private static final int MAX_POOL_SIZE = 2; // 所有主题合计最多缓存的View数量
+
+    // 影响LoadingView外观的配置项
+    private static final int THEME_CONFIG_MASK = ActivityInfo.CONFIG_UI_MODE
+            | ActivityInfo.CONFIG_DENSITY
+            | ActivityInfo.CONFIG_FONT_SCALE
+            | ActivityInfo.CONFIG_LOCALE
+            | ActivityInfo.CONFIG_LAYOUT_DIRECTION;
+
+    private static final int THEME_UNKNOWN = -1; // 无法确定宿主主题
+
+    /**
+     * 一个主题的缓存
+     */
+    private static final class ThemePool {
+        final Context context; // Application Context + 该主题
+        final ArrayList<LoadingView> views = new ArrayList<>(MAX_POOL_SIZE);
+        Configuration config;  // 池中View创建时的配置
+
+        ThemePool(Context context) {
+            this.context = context;
+        }
+    }
+
+    // 主题资源ID -> 该主题的缓存，按访问顺序排列（最久没有使用的在最前面）
+    private static final LinkedHashMap<Integer, ThemePool> sPools = new LinkedHashMap<>(4, 0.75f, true);
+    private static ThemePool sWarmUpPool; // 最近一次预热的主题
+    private static final HashMap<Class<?>, Integer> sActivityThemes = new HashMap<>(); // Activity类 -> 清单中的主题
+    private static boolean sWarmUpScheduled = false;
+    private static boolean sInstalled = false;
+
+    private static final MessageQueue.IdleHandler sWarmUpHandler = () -> {
+        // 每次空闲只创建一个，避免占用过长的空闲时间
+        ThemePool pool = sWarmUpPool;
+        if (pool == null) {
+            sWarmUpScheduled = false;
+            return false;
+        }
+        ensurePoolConfig(pool);
+        if (!makeRoom(pool)) {
+            sWarmUpScheduled = false;
+            return false;
+        }
+        Tracer.begin("LoadingViewPool#warmUp");
+        try {
+            pool.views.add(new LoadingView(pool.context));
+        } finally {
+            Tracer.end();
+        }
+        Logger.d(TAG, "[预热] 预创建LoadingView, 池大小: ", totalSize());
+        boolean keep = totalSize() < MAX_POOL_SIZE;
+        sWarmUpScheduled = keep;
+        return keep;
+    };
+
+    private LoadingViewPool() {
+    }
+
+    /**
+     * 在主线程空闲时预创建LoadingView（可以在Application.onCreate或Activity.onCreate中调用，重复调用无副作用）
+     */
+    public static void warmUp(@NonNull Context context) {
+        int theme = resolveTheme(context);
+        if (theme != THEME_UNKNOWN) {
+            sWarmUpPool = poolFor(context, theme);
+        } else if (sWarmUpPool == null) {
+            sWarmUpPool = poolFor(context, context.getApplicationContext().getApplicationInfo().theme);
+        }
+        if (sWarmUpScheduled || (totalSize() >= MAX_POOL_SIZE && !sWarmUpPool.views.isEmpty())) {
+            return;
+        }
+        sWarmUpScheduled = true;
+        Looper.getMainLooper().getQueue().addIdleHandler(sWarmUpHandler);
+    }
+
+    /**
+     * 注册到Application，第一个Activity创建时自动预热
+     */
+    public static void install(@NonNull Application application) {
+        if (sInstalled) {
+            return;
+        }
+        sInstalled = true;
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+                warmUp(activity);
+                application.unregisterActivityLifecycleCallbacks(this);
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {}
+        });
+    }
+
+    /**
+     * 取出一个LoadingView，该主题的池为空或配置不一致时新建
+     * @param context 显示loading的宿主Context
+     */
+    @NonNull
+    static LoadingView acquire(@NonNull Context context) {
+        int theme = resolveTheme(context);
+        if (theme == THEME_UNKNOWN) {
+            // 宿主单独套了主题，池中的View样式可能不一致，使用宿主的Context，这个View不会放回池中
+            Logger.d(TAG, "[取出] 宿主主题无法确定，不使用缓存池");
+            return new LoadingView(context);
+        }
+        ThemePool pool = poolFor(context, theme);
+        Configuration config = context.getResources().getConfiguration();
+        if (!pool.views.isEmpty()) {
+            if (isCompatible(pool.config, config)) {
+                LoadingView view = pool.views.remove(pool.views.size() - 1);
+                Logger.d(TAG, "[取出] 复用预创建的LoadingView, 剩余: ", totalSize());
+                return view;
+            }
+            Logger.d(TAG, "[取出] 配置已变化，丢弃该主题池中的LoadingView");
+            pool.views.clear();
+            pool.config = null;
+        }
+        if (isCompatible(pool.context.getResources().getConfiguration(), config)) {
+            return new LoadingView(pool.context);
+        }
+        // 宿主单独覆盖了配置（例如单独设置了深色模式），使用宿主的Context，这个View不会放回池中
+        return new LoadingView(context);
+    }
+
+    /**
+     * 放回LoadingView（已从父容器移除后调用），池已满或不是池中创建的View时直接丢弃
+     */
+    static void release(@Nullable LoadingView view) {
+        if (view == null || view.getParent() != null) {
+            return;
+        }
+        ThemePool pool = null;
+        for (ThemePool candidate : sPools.values()) {
+            if (candidate.context == view.getContext()) {
+                pool = candidate;
+                break;
+            }
+        }
+        if (pool == null || pool.views.contains(view)) {
+            return;
+        }
+        ensurePoolConfig(pool);
+        if (!makeRoom(pool)) {
+            return;
+        }
+        view.setLoadingText((String) null);
+        pool.views.add(view);
+        Logger.d(TAG, "[放回] LoadingView已放回池中, 池大小: ", totalSize());
+    }
+
+    /**
+     * 清空缓存池（例如内存紧张时）
+     */
+    public static void clear() {
+        sPools.clear();
+        sWarmUpPool = null;
+        sActivityThemes.clear();
+    }
+
+    /**
+     * 获取主题对应的缓存，没有时创建；缓存的主题数量达到 MAX_POOL_SIZE 时先移除最久没有使用的空缓存
+     */
+    private static ThemePool poolFor(Context context, int theme) {
+        ThemePool pool = sPools.get(theme);
+        if (pool != null) {
+            return pool;
+        }
+        Context appContext = context.getApplicationContext();
+        pool = new ThemePool(theme != 0 ? new ContextThemeWrapper(appContext, theme) : appContext);
+        Iterator<ThemePool> iterator = sPools.values().iterator();
+        while (sPools.size() >= MAX_POOL_SIZE && iterator.hasNext()) {
+            ThemePool eldest = iterator.next();
+            if (eldest.views.isEmpty() && eldest != sWarmUpPool) {
+                iterator.remove();
+            }
+        }
+        sPools.put(theme, pool);
+        return pool;
+    }
+
+    /**
+     * 为主题腾出一个位置：没有满时直接返回true；满了并且该主题已经有View时返回false；
+     * 该主题还没有View时从最久没有使用的主题中淘汰一个，保证每个正在使用的主题至少有一个
+     */
+    private static boolean makeRoom(ThemePool pool) {
+        if (totalSize() < MAX_POOL_SIZE) {
+            return true;
+        }
+        if (!pool.views.isEmpty()) {
+            return false;
+        }
+        Iterator<ThemePool> iterator = sPools.values().iterator();
+        while (iterator.hasNext()) {
+            ThemePool eldest = iterator.next();
+            if (eldest != pool && !eldest.views.isEmpty()) {
+                eldest.views.remove(eldest.views.size() - 1);
+                Logger.d(TAG, "[淘汰] 池已满，淘汰最久没有使用的主题中的LoadingView");
+                if (eldest.views.isEmpty() && eldest != sWarmUpPool) {
+                    iterator.remove();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int totalSize() {
+        int size = 0;
+        for (ThemePool pool : sPools.values()) {
+            size += pool.views.size();
+        }
+        return size;
+    }
+
+    /**
+     * 宿主使用的主题资源ID：Activity取清单中声明的主题（未声明时为应用主题），Application取应用主题；
+     * 中间套了ContextThemeWrapper时返回 {@link #THEME_UNKNOWN}
+     */
+    private static int resolveTheme(Context context) {
+        while (context != null) {
+            if (context instanceof Activity) {
+                return getActivityTheme((Activity) context);
+            }
+            if (context instanceof Application) {
+                return context.getApplicationInfo().theme;
+            }
+            // android.view.ContextThemeWrapper（Activity已在上面处理）和AppCompat的ContextThemeWrapper都会覆盖主题
+            if (context instanceof ContextThemeWrapper
+                    || context instanceof androidx.appcompat.view.ContextThemeWrapper) {
+                return THEME_UNKNOWN;
+            }
+            if (!(context instanceof ContextWrapper)) {
+                break;
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return THEME_UNKNOWN;
+    }
+
+    private static int getActivityTheme(Activity activity) {
+        Integer cached = sActivityThemes.get(activity.getClass());
+        if (cached != null) {
+            return cached;
+        }
+        int theme;
+        try {
+            ActivityInfo info = activity.getPackageManager().getActivityInfo(activity.getComponentName(), 0);
+            theme = info.getThemeResource();
+        } catch (PackageManager.NameNotFoundException e) {
+            theme = THEME_UNKNOWN;
+        }
+        sActivityThemes.put(activity.getClass(), theme);
+        return theme;
+    }
+
+    /**
+     * 应用配置变化后，丢弃该主题按旧配置创建的View
+     */
+    private static void ensurePoolConfig(ThemePool pool) {
+        Configuration current = pool.context.getResources().getConfiguration();
+        if (pool.config == null || !isCompatible(pool.config, current)) {
+            pool.views.clear();
+            pool.config = new Configuration(current);
+        }
+    }
+
+    private static boolean isCompatible(@Nullable Configuration a, @NonNull Configuration b) {
+        return a != null && (a.diff(b) & THEME_CONFIG_MASK) == 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.loading;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * LoadingDispatcher 的单元测试：后台线程的操作在一帧内合并
+ */
+public class LoadingDispatcherTest {
+
+    private final Object pageA = new Object();
+    private final Object pageB = new Object();
+    private final ArrayList<LoadingDispatcher.PendingOp> ops = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        // 清掉其他测试留下的操作
+        LoadingDispatcher.takePending(new ArrayList<>());
+    }
+
+    private static void runOnWorker(Runnable runnable) throws InterruptedException {
+        Thread worker = new Thread(runnable, "loading-test-worker");
+        worker.start();
+        worker.join();
+    }
+
+    @Test
+    public void showThenGlobalHide_onlyHides() throws InterruptedException {
+        runOnWorker(() -> {
+            LoadingDispatcher.enqueue(pageA, LoadingDispatcher.OP_SHOW, null);
+            LoadingDispatcher.enqueue(LoadingDispatcher.GLOBAL_TARGET, LoadingDispatcher.OP_HIDE, null);
+        });
+        LoadingDispatcher.takePending(ops);
+
+        assertEquals(1, ops.size());
+        assertSame(LoadingDispatcher.GLOBAL_TARGET, ops.get(0).target);
+        assertEquals(LoadingDispatcher.OP_HIDE, ops.get(0).op);
+    }
+
+    @Test
+    public void showHideShow_keepsHideThenLatestShow() throws InterruptedException {
+        runOnWorker(() -> {
+            LoadingDispatcher.enqueue(pageA, LoadingDispatcher.OP_SHOW, "first");
+            LoadingDispatcher.enqueue(LoadingDispatcher.GLOBAL_TARGET, LoadingDispatcher.OP_HIDE, null);
+            LoadingDispatcher.enqueue(pageA, LoadingDispatcher.OP_SHOW, "second");
+        });
+        LoadingDispatcher.takePending(ops);
+
+        // 第一个show被第二个覆盖，全局hide之后的show仍然执行
+        assertEquals(2, ops.size());
+        assertSame(LoadingDispatcher.GLOBAL_TARGET, ops.get(0).target);
+        assertSame(pageA, ops.get(1).target);
+        assertEquals(LoadingDispatcher.OP_SHOW, ops.get(1).op);
+        assertEquals("second", ops.get(1).text);
+    }
+
+    @Test
+    public void globalHide_keepsEarlierPageHides() throws InterruptedException {
+        runOnWorker(() -> {
+            LoadingDispatcher.enqueue(pageA, LoadingDispatcher.OP_HIDE, null);
+            LoadingDispatcher.enqueue(pageB, LoadingDispatcher.OP_SHOW, null);
+            LoadingDispatcher.enqueue(LoadingDispatcher.GLOBAL_TARGET, LoadingDispatcher.OP_HIDE, null);
+        });
+        LoadingDispatcher.takePending(ops);
+
+        assertEquals(2, ops.size());
+        assertSame(pageA, ops.get(0).target);
+        assertEquals(LoadingDispatcher.OP_HIDE, ops.get(0).op);
+        assertSame(LoadingDispatcher.GLOBAL_TARGET, ops.get(1).target);
+    }
+
+    @Test
+    public void globalRelease_dropsAllEarlierOps() throws InterruptedException {
+        runOnWorker(() -> {
+            LoadingDispatcher.enqueue(pageA, LoadingDispatcher.OP_HIDE, null);
+            LoadingDispatcher.enqueue(pageB, LoadingDispatcher.OP_SHOW, null);
+            LoadingDispatcher.enqueue(LoadingDispatcher.GLOBAL_TARGET, LoadingDispatcher.OP_RELEASE, null);
+            LoadingDispatcher.enqueue(pageB, LoadingDispatcher.OP_RELEASE, null);
+        });
+        LoadingDispatcher.takePending(ops);
+
+        assertEquals(2, ops.size());
+        assertSame(LoadingDispatcher.GLOBAL_TARGET, ops.get(0).target);
+        assertEquals(LoadingDispatcher.OP_RELEASE, ops.get(0).op);
+        assertSame(pageB, ops.get(1).target);
+        assertEquals(LoadingDispatcher.OP_RELEASE, ops.get(1).op);
+    }
+
+    @Test
+    public void pageOps_runInCallOrder() throws InterruptedException {
+        runOnWorker(() -> {
+            LoadingDispatcher.enqueue(pageB, LoadingDispatcher.OP_SHOW, null);
+            LoadingDispatcher.enqueue(pageA, LoadingDispatcher.OP_SHOW, null);
+            LoadingDispatcher.enqueue(pageB, LoadingDispatcher.OP_HIDE, null);
+        });
+        LoadingDispatcher.takePending(ops);
+
+        assertEquals(2, ops.size());
+        assertSame(pageA, ops.get(0).target);
+        assertSame(pageB, ops.get(1).target);
+        assertEquals(LoadingDispatcher.OP_HIDE, ops.get(1).op);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.loading;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * LoadingTelemetry 的单元测试：直方图分桶、原因计数和批量回调
+ */
+public class LoadingTelemetryTest {
+
+    private static final class HostA {
+    }
+
+    private static final class HostB {
+    }
+
+    // 回调中复制的数据（回调返回后计数会被清零）
+    private final List<Class<?>> flushedHosts = new ArrayList<>();
+    private final List<long[]> flushedBuckets = new ArrayList<>();
+    private final List<long[]> flushedStats = new ArrayList<>();
+    private int flushCalls;
+
+    @Before
+    public void setUp() {
+        LoadingTelemetry.setListener(null);
+        LoadingTelemetry.setFlushThreshold(1000);
+        LoadingTelemetry.setListener(histograms -> {
+            flushCalls++;
+            for (LoadingTelemetry.HostHistogram histogram : histograms) {
+                long[] buckets = new long[histogram.getBucketCount()];
+                for (int i = 0; i < buckets.length; i++) {
+                    buckets[i] = histogram.getBucketCount(i);
+                }
+                flushedHosts.add(histogram.getHostClass());
+                flushedBuckets.add(buckets);
+                flushedStats.add(new long[]{
+                        histogram.getCount(),
+                        histogram.getTotalMs(),
+                        histogram.getMaxMs(),
+                        histogram.getCauseCount(LoadingTelemetry.CAUSE_HIDE),
+                        histogram.getCauseCount(LoadingTelemetry.CAUSE_PAUSE),
+                        histogram.getCauseCount(LoadingTelemetry.CAUSE_DESTROY)
+                });
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        // 统计状态是静态的，不能影响其他测试
+        LoadingTelemetry.setListener(null);
+        LoadingTelemetry.setFlushThreshold(50);
+    }
+
+    @Test
+    public void bucketUpperBounds_areInclusive() {
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 100);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 101);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 250);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 30000);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 30001);
+        LoadingTelemetry.flush();
+
+        assertEquals(1, flushedBuckets.size());
+        long[] buckets = flushedBuckets.get(0);
+        assertEquals(10, buckets.length);
+        assertEquals(1, buckets[0]);  // <= 100
+        assertEquals(2, buckets[1]);  // 101 ~ 250
+        assertEquals(1, buckets[8]);  // 10001 ~ 30000
+        assertEquals(1, buckets[9]);  // > 30000
+    }
+
+    @Test
+    public void lastBucket_hasNoUpperBound() {
+        LoadingTelemetry.HostHistogram histogram = new LoadingTelemetry.HostHistogram(HostA.class);
+        int last = histogram.getBucketCount() - 1;
+        assertEquals(100, histogram.getBucketUpperBoundMs(0));
+        assertEquals(30000, histogram.getBucketUpperBoundMs(last - 1));
+        assertEquals(Long.MAX_VALUE, histogram.getBucketUpperBoundMs(last));
+    }
+
+    @Test
+    public void negativeDuration_countsAsZero() {
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, -50);
+        LoadingTelemetry.flush();
+        assertEquals(1, flushedBuckets.get(0)[0]);
+        assertEquals(0, flushedStats.get(0)[1]);
+    }
+
+    @Test
+    public void record_tracksCausesTotalAndMax() {
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 400);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_PAUSE, 1200);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_DESTROY, 50);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 300);
+        LoadingTelemetry.flush();
+
+        long[] stats = flushedStats.get(0);
+        assertEquals(4, stats[0]);
+        assertEquals(1950, stats[1]);
+        assertEquals(1200, stats[2]);
+        assertEquals(2, stats[3]);
+        assertEquals(1, stats[4]);
+        assertEquals(1, stats[5]);
+    }
+
+    @Test
+    public void flush_onlyReportsHostsWithNewRecords() {
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 100);
+        LoadingTelemetry.record(HostB.class, LoadingTelemetry.CAUSE_HIDE, 100);
+        LoadingTelemetry.flush();
+        assertEquals(2, flushedHosts.size());
+
+        flushedHosts.clear();
+        flushedStats.clear();
+        LoadingTelemetry.record(HostB.class, LoadingTelemetry.CAUSE_HIDE, 700);
+        LoadingTelemetry.flush();
+        assertEquals(1, flushedHosts.size());
+        assertEquals(HostB.class, flushedHosts.get(0));
+        // 回调后计数清零，只包含上次回调以来的记录
+        assertEquals(1, flushedStats.get(0)[0]);
+        assertEquals(700, flushedStats.get(0)[2]);
+    }
+
+    @Test
+    public void flush_withoutRecords_doesNotCallListener() {
+        LoadingTelemetry.flush();
+        assertEquals(0, flushCalls);
+    }
+
+    @Test
+    public void record_flushesAtThreshold() {
+        LoadingTelemetry.setFlushThreshold(3);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 10);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 10);
+        assertEquals(0, flushCalls);
+        LoadingTelemetry.record(HostB.class, LoadingTelemetry.CAUSE_STOP, 10);
+        assertEquals(1, flushCalls);
+        assertEquals(2, flushedHosts.size());
+    }
+
+    @Test
+    public void record_withoutListener_isDropped() {
+        LoadingTelemetry.setListener(null);
+        LoadingTelemetry.record(HostA.class, LoadingTelemetry.CAUSE_HIDE, 10);
+        assertFalse(LoadingTelemetry.isEnabled());
+        LoadingTelemetry.flush();
+        assertEquals(0, flushCalls);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.loading;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LoadingToken 的单元测试：后台线程acquire返回的延后凭证
+ */
+public class LoadingTokenTest {
+
+    @Test
+    public void deferred_releasedBeforeAttach_rejectsToken() {
+        LoadingToken deferred = LoadingToken.deferred();
+        assertFalse(deferred.isReleased());
+        deferred.release();
+        assertTrue(deferred.isReleased());
+
+        // 主线程acquire完成时凭证已经释放，调用方需要释放真正的凭证
+        LoadingToken token = LoadingToken.deferred();
+        assertFalse(deferred.attach(token));
+    }
+
+    @Test
+    public void deferred_releaseAfterAttach_releasesDelegate() {
+        LoadingToken deferred = LoadingToken.deferred();
+        LoadingToken token = LoadingToken.deferred();
+        assertTrue(deferred.attach(token));
+        assertFalse(token.isReleased());
+
+        deferred.release();
+        assertTrue(token.isReleased());
+    }
+
+    @Test
+    public void deferred_releaseFromWorker_isSeenByMainThread() throws InterruptedException {
+        LoadingToken deferred = LoadingToken.deferred();
+        Thread worker = new Thread(deferred::release);
+        worker.start();
+        worker.join();
+        assertTrue(deferred.isReleased());
+        assertFalse(deferred.attach(LoadingToken.deferred()));
+    }
+
+    @Test
+    public void empty_isAlwaysReleased() {
+        assertTrue(LoadingToken.EMPTY.isReleased());
+        LoadingToken.EMPTY.release();
+        assertTrue(LoadingToken.EMPTY.isReleased());
+    }
+}
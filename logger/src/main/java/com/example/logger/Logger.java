@@ -0,0 +1,141 @@
+package com.example.logger;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 组件库统一日志工具
+ *
+ * 1. 编译期开关：{@link #ENABLED} 是编译期常量（来自BuildConfig），release包中为false，
+ *    调用方写成 if (Logger.ENABLED) { ... } 时，整段代码（包括字符串拼接）会被编译器直接去掉；
+ * 2. 级别检查：低于 {@link #setMinLevel(int)} 的日志直接返回，不会执行任何拼接；
+ * 3. 带参数的重载：消息前缀和参数分开传入，只有真正输出时才拼接字符串，int/long参数不会装箱。
+ *
+ * verbose/debug/info 受编译期开关控制，warn/error 在release包中也会输出。
+ */
+public final class Logger {
+    /**
+     * 是否输出调试日志（编译期常量，release包为false）
+     */
+    public static final boolean ENABLED = BuildConfig.LOG_ENABLED;
+
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
+
+    private static int minLevel = ENABLED ? DEBUG : WARN;
+
+    private Logger() {
+    }
+
+    /**
+     * 设置最低输出级别（例如性能测试时设置为WARN，关闭所有调试日志）
+     */
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    /**
+     * 指定级别的日志是否会输出，复杂的日志参数可以先用它判断
+     */
+    public static boolean isLoggable(int level) {
+        if (level < WARN && !ENABLED) {
+            return false;
+        }
+        return level >= minLevel;
+    }
+
+    public static void v(@NonNull String tag, @NonNull String msg) {
+        if (ENABLED && isLoggable(VERBOSE)) {
+            Log.v(tag, msg);
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String msg) {
+        if (ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, msg);
+        }
+    }
+
+    /**
+     * 输出 msg + arg，只有真正输出时才拼接
+     */
+    public static void d(@NonNull String tag, @NonNull String msg, @Nullable Object arg) {
+        if (ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, msg + arg);
+        }
+    }
+
+    /**
+     * 输出 msg + arg，只有真正输出时才拼接，参数不会装箱
+     */
+    public static void d(@NonNull String tag, @NonNull String msg, int arg) {
+        if (ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, msg + arg);
+        }
+    }
+
+    /**
+     * 输出 msg + arg，只有真正输出时才拼接，参数不会装箱
+     */
+    public static void d(@NonNull String tag, @NonNull String msg, long arg) {
+        if (ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, msg + arg);
+        }
+    }
+
+    /**
+     * 输出 msg1 + arg1 + msg2 + arg2，只有真正输出时才拼接
+     */
+    public static void d(@NonNull String tag, @NonNull String msg1, @Nullable Object arg1,
+                         @NonNull String msg2, @Nullable Object arg2) {
+        if (ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, msg1 + arg1 + msg2 + arg2);
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String msg) {
+        if (ENABLED && isLoggable(INFO)) {
+            Log.i(tag, msg);
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String msg) {
+        if (isLoggable(WARN)) {
+            Log.w(tag, msg);
+        }
+    }
+
+    /**
+     * 输出 msg + arg，只有真正输出时才拼接
+     */
+    public static void w(@NonNull String tag, @NonNull String msg, @Nullable Object arg) {
+        if (isLoggable(WARN)) {
+            Log.w(tag, msg + arg);
+        }
+    }
+
+    public static void e(@NonNull String tag, @NonNull String msg) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, msg);
+        }
+    }
+
+    public static void e(@NonNull String tag, @NonNull String msg, @Nullable Throwable tr) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, msg, tr);
+        }
+    }
+
+    /**
+     * 获取对象的类名用于日志，对象为null时返回"null"
+     */
+    @NonNull
+    public static String nameOf(@Nullable Object object) {
+        return object != null ? object.getClass().getSimpleName() : "null";
+    }
+}
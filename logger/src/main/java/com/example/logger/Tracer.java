@@ -0,0 +1,55 @@
+package com.example.logger;
+
+import androidx.annotation.NonNull;
+import androidx.tracing.Trace;
+
+/**
+ * 组件库统一trace标记工具
+ *
+ * 在关键路径（显示/隐藏loading、测量、懒加载等）标记代码段，debug包中可以在Perfetto/Systrace中直接看到耗时；
+ * {@link #ENABLED} 是编译期常量（来自BuildConfig），release包中整段调用会被编译器去掉。
+ *
+ * 使用示例：
+ * Tracer.begin("Loading#show");
+ * try {
+ *     ...
+ * } finally {
+ *     Tracer.end();
+ * }
+ *
+ * begin/end 必须在同一个线程成对调用；段名请使用字符串常量，避免拼接。
+ */
+public final class Tracer {
+    /**
+     * 是否输出trace标记（编译期常量，release包为false）
+     */
+    public static final boolean ENABLED = BuildConfig.TRACE_ENABLED;
+
+    private Tracer() {
+    }
+
+    /**
+     * 开始一个trace段
+     */
+    public static void begin(@NonNull String sectionName) {
+        if (ENABLED) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    /**
+     * 结束最近开始的trace段
+     */
+    public static void end() {
+        if (ENABLED) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * 系统trace是否正在录制（录制时才值得构造动态的段名）
+     */
+    public static boolean isRecording() {
+        return ENABLED && Trace.isEnabled();
+    }
+}
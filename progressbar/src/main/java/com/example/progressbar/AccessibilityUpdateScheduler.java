@@ -0,0 +1,150 @@
+package com.example.progressbar;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
+
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+
+import java.util.HashMap;
+
+/**
+ * 进度条无障碍更新调度器
+ *
+ * <p><b>为什么需要它？</b></p>
+ * <ul>
+ *   <li>动画期间每帧都会更新进度，如果每帧都发送无障碍事件、用String.format生成描述，既浪费CPU又会让屏幕阅读器频繁播报</li>
+ *   <li>大部分用户没有开启任何无障碍服务，这些工作完全没有必要</li>
+ * </ul>
+ *
+ * <p><b>调度规则：</b></p>
+ * <ol>
+ *   <li>没有开启无障碍服务时直接返回，不做任何工作</li>
+ *   <li>只有整数百分比变化时才需要通知</li>
+ *   <li>两次事件之间至少间隔 throttle 毫秒，间隔内的变化合并成一次延迟发送（只发送最新的进度）</li>
+ *   <li>描述文字按百分比缓存，同一个标签的每个百分比只拼接一次</li>
+ * </ol>
+ *
+ * <p>所有方法都需要在主线程调用。</p>
+ */
+final class AccessibilityUpdateScheduler {
+    /** 默认的事件间隔（毫秒） */
+    static final long DEFAULT_THROTTLE_MS = 500;
+
+    // 标签 -> 0~100每个百分比的描述文字（所有进度条共用）
+    private static final HashMap<String, String[]> descriptionCache = new HashMap<>();
+
+    private final View host;
+    private final AccessibilityManager accessibilityManager;
+    private final Runnable sendRunnable = this::sendNow;
+    private long throttleMs = DEFAULT_THROTTLE_MS;
+    private long lastEventTime;
+    private int lastPercent = -1;
+    private boolean pending;
+
+    AccessibilityUpdateScheduler(@NonNull View host) {
+        this.host = host;
+        this.accessibilityManager = (AccessibilityManager) host.getContext()
+                .getSystemService(Context.ACCESSIBILITY_SERVICE);
+    }
+
+    /**
+     * 获取描述文字，例如"线性进度条，当前进度50%"
+     * @param label 进度条名称
+     * @param percent 百分比（0-100）
+     */
+    @NonNull
+    static String getDescription(@NonNull String label, int percent) {
+        String[] descriptions = descriptionCache.get(label);
+        if (descriptions == null) {
+            descriptions = new String[101];
+            descriptionCache.put(label, descriptions);
+        }
+        percent = Math.max(0, Math.min(100, percent));
+        String description = descriptions[percent];
+        if (description == null) {
+            description = label + "，当前进度" + percent + "%";
+            descriptions[percent] = description;
+        }
+        return description;
+    }
+
+    /**
+     * 进度转换为整数百分比（0-100）
+     */
+    static int toPercent(float progress) {
+        return (int) (progress * 100);
+    }
+
+    /**
+     * 设置两次事件之间的最小间隔
+     * @param throttleMs 间隔（毫秒），0表示不限制
+     */
+    void setThrottle(long throttleMs) {
+        this.throttleMs = Math.max(0, throttleMs);
+    }
+
+    long getThrottle() {
+        return throttleMs;
+    }
+
+    /**
+     * 进度变化时调用，只有整数百分比变化时才会安排通知
+     */
+    void onProgressChanged(float progress) {
+        int percent = toPercent(progress);
+        if (percent == lastPercent) {
+            return;
+        }
+        lastPercent = percent;
+        schedule();
+    }
+
+    /**
+     * 描述文字（模式、自定义描述）变化时调用，不检查百分比直接安排通知
+     */
+    void onDescriptionChanged() {
+        schedule();
+    }
+
+    /**
+     * 取消还没有发送的通知（View从窗口分离时调用）
+     */
+    void cancel() {
+        if (pending) {
+            pending = false;
+            host.removeCallbacks(sendRunnable);
+        }
+    }
+
+    private void schedule() {
+        if (pending || !isAccessibilityActive()) {
+            return;
+        }
+        long elapsed = SystemClock.uptimeMillis() - lastEventTime;
+        if (elapsed >= throttleMs) {
+            sendNow();
+        } else {
+            pending = true;
+            host.postDelayed(sendRunnable, throttleMs - elapsed);
+        }
+    }
+
+    private void sendNow() {
+        pending = false;
+        if (!isAccessibilityActive()) {
+            return;
+        }
+        lastEventTime = SystemClock.uptimeMillis();
+        // 描述文字在 onInitializeAccessibilityNodeInfo 中按最新进度生成，这里只通知内容变化
+        host.sendAccessibilityEvent(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
+    }
+
+    private boolean isAccessibilityActive() {
+        return accessibilityManager != null && accessibilityManager.isEnabled()
+                && ViewCompat.getImportantForAccessibility(host) != ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO;
+    }
+}
@@ -3,21 +3,39 @@ package com.example.progressbar;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Picture;
 import android.graphics.RectF;
 import android.util.AttributeSet;
 import android.view.View;
-import android.view.accessibility.AccessibilityEvent;
+import android.view.animation.AnimationUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.view.AccessibilityDelegateCompat;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 
 /**
  * 环形进度条View
  * 使用Canvas绘制圆形进度条
+ *
+ * 支持两种模式：
+ * 1. 确定进度（默认）：从顶部顺时针绘制 progress × 360 度的圆弧
+ * 2. 不确定进度（{@link #setIndeterminate(boolean)}）：Material风格的旋转圆弧，圆弧长度在最短和最长之间交替伸缩
+ *
+ * 背景圆环录制在一个Picture（显示列表）中，只有尺寸、线宽、颜色变化时才重新录制；
+ * 不确定进度动画只在View添加到窗口并且可见时运行，每帧只计算两个角度，不分配内存。
  */
 public class CircularProgressView extends View {
+    // 所有实例共用的无障碍代理，状态从host读取
+    private static final AccessibilityDelegateCompat ACCESSIBILITY_DELEGATE = new AccessibilityDelegateCompat() {
+        @Override
+        public void onInitializeAccessibilityNodeInfo(View host, AccessibilityNodeInfoCompat info) {
+            super.onInitializeAccessibilityNodeInfo(host, info);
+            ((CircularProgressView) host).onInitializeProgressNodeInfo(info);
+        }
+    };
+
     private Paint backgroundPaint;
     private Paint progressPaint;
     private float progress = 0f;
@@ -25,6 +43,26 @@ public class CircularProgressView extends View {
     private int backgroundColor = 0xFFE0E0E0;
     private int progressColor = 0xFF2196F3;
     private RectF rectF;
+    // 背景圆环的显示列表，尺寸/线宽/颜色变化时重新录制
+    private final Picture ringPicture = new Picture();
+    private boolean ringDirty = true;
+    private AccessibilityUpdateScheduler accessibilityScheduler;
+
+    // 不确定进度动画
+    // 一次伸缩（伸长 + 收缩）的时长
+    private static final long INDETERMINATE_CYCLE_MS = 1333;
+    // 整体匀速旋转一圈的时长
+    private static final long INDETERMINATE_ROTATION_MS = 2000;
+    private static final float INDETERMINATE_MIN_SWEEP = 20f;
+    private static final float INDETERMINATE_MAX_SWEEP = 290f;
+    private boolean indeterminate;
+    private boolean animationVisible;
+    private boolean animationRunning;
+    // 动画已经播放的时长（暂停时保存，恢复后接着播放）
+    private long indeterminateElapsedMs;
+    private long indeterminateStartMs;
+    // 任意线程写入进度的入口，每帧最多应用一次
+    private final ProgressSink progressSink = new ProgressSink(this::setProgress);
 
     public CircularProgressView(@NonNull Context context) {
         this(context, null);
@@ -64,44 +102,56 @@ public class CircularProgressView extends View {
      * 初始化无障碍支持
      */
     private void initAccessibility() {
-        // 设置为可访问的View
-        ViewCompat.setAccessibilityDelegate(this, new androidx.core.view.AccessibilityDelegateCompat() {
-            @Override
-            public void onInitializeAccessibilityNodeInfo(View host, AccessibilityNodeInfoCompat info) {
-                super.onInitializeAccessibilityNodeInfo(host, info);
-                
-                // 设置角色为进度条
-                info.setClassName(android.widget.ProgressBar.class.getName());
-                
-                // 设置进度信息
-                int progressPercent = (int) (progress * 100);
-                info.setRangeInfo(
-                    AccessibilityNodeInfoCompat.RangeInfoCompat.obtain(
-                        AccessibilityNodeInfoCompat.RangeInfoCompat.RANGE_TYPE_INT,
-                        0f,
-                        100f,
-                        (float) progressPercent
-                    )
-                );
-                
-                // 设置内容描述
-                CharSequence contentDesc = getContentDescription();
-                if (contentDesc == null || contentDesc.length() == 0) {
-                    setContentDescription(String.format("环形进度条，当前进度%d%%", progressPercent));
-                }
-            }
-        });
+        accessibilityScheduler = new AccessibilityUpdateScheduler(this);
+
+        // 设置为可访问的View（所有实例共用一个代理）
+        ViewCompat.setAccessibilityDelegate(this, ACCESSIBILITY_DELEGATE);
         
         // 设置为重要（不会被忽略）
         ViewCompat.setImportantForAccessibility(this, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_YES);
     }
 
+    /**
+     * 填充无障碍节点信息（由共用的无障碍代理调用）
+     */
+    private void onInitializeProgressNodeInfo(AccessibilityNodeInfoCompat info) {
+        // 设置角色为进度条
+        info.setClassName(android.widget.ProgressBar.class.getName());
+        
+        CharSequence contentDesc = getContentDescription();
+        boolean hasCustomDesc = contentDesc != null && contentDesc.length() > 0;
+        if (indeterminate) {
+            // 不确定进度没有进度值
+            if (!hasCustomDesc) {
+                info.setContentDescription("环形进度条，加载中");
+            }
+            return;
+        }
+        
+        // 设置进度信息
+        int progressPercent = (int) (progress * 100);
+        info.setRangeInfo(
+            AccessibilityNodeInfoCompat.RangeInfoCompat.obtain(
+                AccessibilityNodeInfoCompat.RangeInfoCompat.RANGE_TYPE_INT,
+                0f,
+                100f,
+                (float) progressPercent
+            )
+        );
+        
+        // 设置内容描述（没有自定义描述时使用缓存的默认描述）
+        if (!hasCustomDesc) {
+            info.setContentDescription(AccessibilityUpdateScheduler.getDescription("环形进度条", progressPercent));
+        }
+    }
+
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
         // 计算绘制区域，留出strokeWidth的空间
         float padding = strokeWidth / 2;
         rectF.set(padding, padding, w - padding, h - padding);
+        ringDirty = true;
     }
 
     @Override
@@ -112,14 +162,118 @@ public class CircularProgressView extends View {
             return;
         }
 
-        // 绘制背景圆环
-        canvas.drawArc(rectF, 0, 360, false, backgroundPaint);
+        // 绘制背景圆环（使用缓存的显示列表）
+        if (ringDirty) {
+            recordRing();
+        }
+        canvas.drawPicture(ringPicture);
+
+        if (indeterminate) {
+            drawIndeterminate(canvas);
+            return;
+        }
 
         // 绘制进度弧（从-90度开始，顺时针）
         float sweepAngle = progress * 360;
         canvas.drawArc(rectF, -90, sweepAngle, false, progressPaint);
     }
 
+    /**
+     * 把背景圆环录制到ringPicture中（复用同一个Picture对象）
+     */
+    private void recordRing() {
+        Canvas recording = ringPicture.beginRecording(getWidth(), getHeight());
+        recording.drawOval(rectF, backgroundPaint);
+        ringPicture.endRecording();
+        ringDirty = false;
+    }
+
+    /**
+     * 绘制不确定进度的旋转圆弧
+     *
+     * 每个周期的前半段圆弧头部前进（变长），后半段尾部追上（变短），
+     * 每个周期结束时起点前进 (最长 - 最短) 度，再叠加整体的匀速旋转
+     */
+    private void drawIndeterminate(Canvas canvas) {
+        long elapsed = indeterminateElapsedMs;
+        if (animationRunning) {
+            elapsed += AnimationUtils.currentAnimationTimeMillis() - indeterminateStartMs;
+        }
+        long cycleIndex = elapsed / INDETERMINATE_CYCLE_MS;
+        float cycle = (elapsed % INDETERMINATE_CYCLE_MS) / (float) INDETERMINATE_CYCLE_MS;
+        float range = INDETERMINATE_MAX_SWEEP - INDETERMINATE_MIN_SWEEP;
+        float head;
+        float tail;
+        if (cycle < 0.5f) {
+            head = ease(cycle * 2f) * range;
+            tail = 0f;
+        } else {
+            head = range;
+            tail = ease((cycle - 0.5f) * 2f) * range;
+        }
+        float rotation = 360f * (elapsed % INDETERMINATE_ROTATION_MS) / INDETERMINATE_ROTATION_MS;
+        float startAngle = -90f + rotation + (cycleIndex % 360) * range + tail;
+        float sweepAngle = INDETERMINATE_MIN_SWEEP + head - tail;
+        canvas.drawArc(rectF, startAngle % 360f, sweepAngle, false, progressPaint);
+
+        if (animationRunning) {
+            // 下一帧继续绘制，不可见或分离后animationRunning为false，动画自动停止
+            postInvalidateOnAnimation();
+        }
+    }
+
+    /**
+     * 先加速后减速的缓动曲线（smoothstep）
+     */
+    private static float ease(float t) {
+        return t * t * (3f - 2f * t);
+    }
+
+    /**
+     * 设置是否为不确定进度模式
+     *
+     * @param indeterminate true=显示旋转圆弧（不需要进度值），false=显示确定进度
+     */
+    public void setIndeterminate(boolean indeterminate) {
+        if (this.indeterminate == indeterminate) {
+            return;
+        }
+        this.indeterminate = indeterminate;
+        indeterminateElapsedMs = 0;
+        updateAnimationState();
+        invalidate();
+        if (accessibilityScheduler != null) {
+            accessibilityScheduler.onDescriptionChanged();
+        }
+    }
+
+    /**
+     * 是否为不确定进度模式
+     */
+    public boolean isIndeterminate() {
+        return indeterminate;
+    }
+
+    /**
+     * 根据模式和可见性启动或暂停不确定进度动画
+     */
+    private void updateAnimationState() {
+        boolean shouldRun = indeterminate && animationVisible;
+        if (shouldRun == animationRunning) {
+            return;
+        }
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        if (shouldRun) {
+            indeterminateStartMs = now;
+            animationRunning = true;
+            invalidate();
+        } else {
+            // 暂停时保存已播放的时长，恢复后从同一位置继续
+            indeterminateElapsedMs += now - indeterminateStartMs;
+            animationRunning = false;
+        }
+    }
+
     /**
      * 设置进度值（0-1）
      */
@@ -127,23 +281,56 @@ public class CircularProgressView extends View {
         this.progress = Math.max(0f, Math.min(1f, progress));
         invalidate();
         
-        // 更新无障碍信息
-        updateAccessibilityInfo();
+        // 更新无障碍信息（只在百分比变化时按间隔通知，没有开启无障碍服务时不做任何工作）
+        if (!indeterminate) {
+            accessibilityScheduler.onProgressChanged(this.progress);
+        }
     }
 
     /**
-     * 更新无障碍信息
+     * 设置无障碍事件的最小间隔
+     * @param throttleMs 间隔（毫秒），默认500，0表示不限制
      */
-    private void updateAccessibilityInfo() {
-        // 发送无障碍事件
-        sendAccessibilityEvent(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
-        
-        // 更新内容描述
-        int progressPercent = (int) (progress * 100);
-        CharSequence contentDesc = getContentDescription();
-        if (contentDesc == null || contentDesc.length() == 0) {
-            setContentDescription(String.format("环形进度条，当前进度%d%%", progressPercent));
-        }
+    public void setAccessibilityThrottle(long throttleMs) {
+        accessibilityScheduler.setThrottle(throttleMs);
+    }
+
+    /**
+     * 获取进度写入口，写入的进度每帧最多应用一次
+     *
+     * 需要在主线程获取，获取后可以交给任意线程调用 {@link ProgressSink#post(float)}
+     */
+    @NonNull
+    public ProgressSink getProgressSink() {
+        return progressSink;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        setVisibleInWindow(isShown());
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        setVisibleInWindow(isVisible && isAttachedToWindow());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        setVisibleInWindow(false);
+        accessibilityScheduler.cancel();
+    }
+
+    /**
+     * 已添加到窗口并且可见时才应用后台写入的进度、播放不确定进度动画
+     */
+    private void setVisibleInWindow(boolean visible) {
+        progressSink.setActive(visible);
+        animationVisible = visible;
+        updateAnimationState();
     }
 
     /**
@@ -165,6 +352,7 @@ public class CircularProgressView extends View {
             float padding = strokeWidth / 2;
             rectF.set(padding, padding, getWidth() - padding, getHeight() - padding);
         }
+        ringDirty = true;
         invalidate();
     }
 
@@ -181,6 +369,7 @@ public class CircularProgressView extends View {
     public void setBackgroundColor(int color) {
         this.backgroundColor = color;
         backgroundPaint.setColor(color);
+        ringDirty = true;
         invalidate();
     }
 
@@ -1,18 +1,17 @@
 package com.example.progressbar;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
 import android.util.AttributeSet;
-import android.view.LayoutInflater;
+import android.view.Gravity;
 import android.view.View;
-import android.view.accessibility.AccessibilityEvent;
-import android.view.accessibility.AccessibilityNodeInfo;
-import android.view.animation.AccelerateDecelerateInterpolator;
 import android.widget.FrameLayout;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.view.AccessibilityDelegateCompat;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 import androidx.core.view.accessibility.AccessibilityNodeProviderCompat;
@@ -34,22 +33,22 @@ import com.example.progressbar.R;
  * 
  * <p><b>实现原理：</b></p>
  * <ol>
- *   <li><b>双模式实现：</b>通过显示/隐藏不同的View实现线性和环形模式的切换
+ *   <li><b>双模式实现：</b>线性模式自己绘制，环形模式显示CircularProgressView
  *       <ul>
- *         <li>线性模式：使用两个View（背景View和前景View），通过动态修改前景View的宽度来显示进度</li>
+ *         <li>线性模式：在自身的onDraw()中用Canvas.drawRoundRect()绘制轨道和进度，不使用子View</li>
  *         <li>环形模式：使用CircularProgressView自定义View，通过Canvas绘制圆形进度条</li>
  *       </ul>
  *   </li>
- *   <li><b>动画实现：</b>使用ValueAnimator实现平滑的进度变化动画
+ *   <li><b>动画实现：</b>使用临界阻尼弹簧（ProgressSpring）实现平滑的进度变化动画
  *       <ul>
- *         <li>通过ValueAnimator.ofFloat()创建浮点数动画</li>
- *         <li>使用AccelerateDecelerateInterpolator实现先加速后减速的动画效果</li>
- *         <li>在动画更新回调中实时更新进度值并刷新UI</li>
+ *         <li>整个View只有一个弹簧和一个FrameCallback，每帧推进一步，不分配内存</li>
+ *         <li>动画中修改目标值时保持当前速度，频繁更新进度也能平滑追上目标</li>
+ *         <li>在弹簧更新回调中实时更新进度值并刷新UI</li>
  *       </ul>
  *   </li>
  *   <li><b>进度更新机制：</b>
  *       <ul>
- *         <li>线性模式：通过修改前景View的LayoutParams.width来改变宽度</li>
+ *         <li>线性模式：只调用invalidate()重绘自身，不修改LayoutParams，不会触发requestLayout()</li>
  *         <li>环形模式：调用CircularProgressView.setProgress()触发invalidate()重绘</li>
  *       </ul>
  *   </li>
@@ -80,14 +79,48 @@ public class CustomProgressBar extends FrameLayout {
     public static final int MODE_LINEAR = 0;  // 线性模式
     public static final int MODE_CIRCULAR = 1; // 环形模式
 
-    private View progressBackground;
-    private View progressForeground;
+    /**
+     * 进度变化监听
+     * 
+     * <p>每帧最多回调一次，只在显示的进度变化时回调（设置了百分比粒度时，只在跨过粒度时回调）</p>
+     */
+    public interface OnProgressChangeListener {
+        /**
+         * @param progressBar 进度条
+         * @param progress 当前显示的进度（0-1），动画期间是动画中的值
+         */
+        void onProgressChanged(@NonNull CustomProgressBar progressBar, float progress);
+    }
+
+    // 所有实例共用的无障碍代理，状态从host读取
+    private static final AccessibilityDelegateCompat ACCESSIBILITY_DELEGATE = new AccessibilityDelegateCompat() {
+        @Override
+        public void onInitializeAccessibilityNodeInfo(View host, AccessibilityNodeInfoCompat info) {
+            super.onInitializeAccessibilityNodeInfo(host, info);
+            ((CustomProgressBar) host).onInitializeProgressNodeInfo(info);
+        }
+    };
+
+    // 环形进度条View，第一次切换到环形模式时才创建
     private CircularProgressView circularProgressView;
+    // 线性模式由ProgressDrawable绘制，进度变化只重绘自身
+    private ProgressDrawable linearDrawable;
     private int progressMode = MODE_LINEAR; // 默认线性模式
     private float currentProgress = 0.25f; // 默认进度25%
-    private ValueAnimator animator;
+    private final ProgressSpring spring = new ProgressSpring(this::onSpringUpdate);
+    // 任意线程写入进度的入口，每帧最多应用一次（带动画，弹簧会平滑地追上最新值）
+    private final ProgressSink progressSink = new ProgressSink(value -> setProgress(value, true));
+    private ProgressAggregator boundAggregator;
+    private boolean indeterminate; // 环形模式是否显示不确定进度
+    // 进度变化监听：同一帧内的多次变化合并成一次回调
+    private OnProgressChangeListener progressChangeListener;
+    private int progressChangeGranularity; // 百分比粒度，0表示任何变化都回调
+    private long lastDispatchedKey = Long.MIN_VALUE;
+    private boolean progressChangePending;
+    private final Runnable progressChangeDispatcher = this::dispatchProgressChanged;
     private int animationDuration = 500; // 默认动画时长500ms
     private String accessibilityContentDescription; // 无障碍内容描述
+    private AccessibilityUpdateScheduler accessibilityScheduler;
 
     /**
      * 构造函数1：仅传入Context
@@ -173,6 +206,7 @@ public class CustomProgressBar extends FrameLayout {
      */
     public CustomProgressBar(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+        spring.setDuration(animationDuration);
         init(attrs);
     }
 
@@ -183,7 +217,7 @@ public class CustomProgressBar extends FrameLayout {
      * 
      * <p><b>初始化步骤：</b></p>
      * <ol>
-     *   <li>加载布局文件，inflate出线性和环形进度条的View</li>
+     *   <li>创建线性模式的ProgressDrawable（环形View在第一次切换到环形模式时才创建）</li>
      *   <li>从XML属性中读取配置（进度值、模式、动画设置等）</li>
      *   <li>根据读取的属性设置进度条模式和初始进度</li>
      * </ol>
@@ -198,10 +232,10 @@ public class CustomProgressBar extends FrameLayout {
      * @param attrs XML属性集合，如果为null则使用默认值
      */
     private void init(AttributeSet attrs) {
-        LayoutInflater.from(getContext()).inflate(R.layout.custom_progress_bar, this, true);
-        progressBackground = findViewById(R.id.progress_background);
-        progressForeground = findViewById(R.id.progress_foreground);
-        circularProgressView = findViewById(R.id.circular_progress_view);
+        // 线性模式由自身绘制，FrameLayout默认不调用onDraw
+        setWillNotDraw(false);
+        linearDrawable = new ProgressDrawable(getContext(), ProgressDrawable.MODE_LINEAR);
+        linearDrawable.setCallback(this);
         
         // 从XML读取属性
         if (attrs != null) {
@@ -222,6 +256,10 @@ public class CustomProgressBar extends FrameLayout {
                 // 读取动画时长（默认500ms）
                 animationDuration = typedArray.getInteger(R.styleable.CustomProgressBar_animationDuration, 500);
                 animationDuration = Math.max(0, animationDuration);
+                spring.setDuration(animationDuration);
+                
+                // 读取线性模式的填充样式（默认纯色）
+                setFillStyle(typedArray.getInt(R.styleable.CustomProgressBar_fillStyle, ProgressDrawable.FILL_SOLID));
                 
         // 设置进度条模式（这会显示对应的view）
         setProgressMode(progressMode);
@@ -248,13 +286,88 @@ public class CustomProgressBar extends FrameLayout {
 initAccessibility();
     }
 
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        // 线性模式没有可见的子View，wrap_content时高度使用轨道高度
+        if (progressMode == MODE_LINEAR && MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.EXACTLY) {
+            int trackHeight = linearDrawable.getIntrinsicHeight();
+            int height = resolveSize(trackHeight + getPaddingTop() + getPaddingBottom(), heightMeasureSpec);
+            setMeasuredDimension(getMeasuredWidth(), height);
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // 内容区域，轨道由ProgressDrawable在其中垂直居中
+        linearDrawable.setBounds(getPaddingLeft(), getPaddingTop(), w - getPaddingRight(), h - getPaddingBottom());
+    }
+
+    /**
+     * 绘制线性进度条
+     *
+     * <p><b>实现原理：</b>交给ProgressDrawable绘制：先画整条轨道，再画宽度为 轨道宽度 × 进度 的进度部分，
+     * 两次drawRoundRect都使用预先创建的Paint/RectF，进度变化时只需要重绘自身</p>
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (progressMode == MODE_LINEAR) {
+            linearDrawable.draw(canvas);
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == linearDrawable || super.verifyDrawable(who);
+    }
+
+    /**
+     * 设置线性模式的轨道颜色和进度颜色
+     */
+    public void setLinearColors(int trackColor, int fillColor) {
+        linearDrawable.setColors(trackColor, fillColor);
+    }
+
+    /**
+     * 设置线性模式的填充样式
+     * 
+     * <p><b>实现原理：</b>渐变和条纹都由ProgressDrawable使用缓存的Shader绘制，只在尺寸或颜色变化时重新创建；
+     * 条纹样式会自动开始移动动画，动画只修改Shader的local matrix，进度条不可见时自动暂停</p>
+     * 
+     * @param fillStyle {@link ProgressDrawable#FILL_SOLID}、{@link ProgressDrawable#FILL_GRADIENT} 或 {@link ProgressDrawable#FILL_STRIPES}
+     */
+    public void setFillStyle(int fillStyle) {
+        linearDrawable.setFillStyle(fillStyle);
+        if (linearDrawable.getFillStyle() == ProgressDrawable.FILL_STRIPES) {
+            linearDrawable.start();
+        } else {
+            linearDrawable.stop();
+        }
+    }
+
+    /**
+     * 获取线性模式的填充样式
+     */
+    public int getFillStyle() {
+        return linearDrawable.getFillStyle();
+    }
+
+    /**
+     * 设置线性模式渐变填充的起止颜色（{@link ProgressDrawable#FILL_GRADIENT} 样式下生效）
+     */
+    public void setGradientColors(int startColor, int endColor) {
+        linearDrawable.setGradientColors(startColor, endColor);
+    }
+
     /**
      * 布局方法重写
      * 
      * <p><b>为什么需要重写onLayout？</b></p>
      * <ul>
      *   <li>当View的尺寸或位置发生变化时，需要重新计算进度条的显示</li>
-     *   <li>线性进度条需要根据背景View的实际宽度来计算前景View的宽度</li>
+     *   <li>环形进度条需要在布局完成后同步进度值</li>
      *   <li>确保在布局完成后，进度条能正确显示</li>
      * </ul>
      * 
@@ -301,8 +414,8 @@ initAccessibility();
      * <p><b>实现原理：</b>
      * <ol>
      *   <li>首先限制进度值在0-1范围内：<code>Math.max(0f, Math.min(1f, progress))</code></li>
-     *   <li>如果使用动画：调用animateProgress()创建ValueAnimator实现平滑过渡</li>
-     *   <li>如果不使用动画：直接更新currentProgress并调用updateProgress()立即刷新</li>
+     *   <li>如果使用动画：调用animateProgress()让弹簧平滑过渡到新目标</li>
+     *   <li>如果不使用动画：停止弹簧，直接更新currentProgress并调用updateProgress()立即刷新</li>
      * </ol>
      * 
      * <p><b>使用场景：</b></p>
@@ -319,8 +432,9 @@ initAccessibility();
         progress = Math.max(0f, Math.min(1f, progress));
 
         if (animate) {
-            animateProgress(currentProgress, progress);
+            animateProgress(progress);
         } else {
+            spring.jumpTo(progress);
             currentProgress = progress;
             updateProgress();
         }
@@ -334,10 +448,10 @@ initAccessibility();
      * <p><b>实现原理：</b>
      * <ol>
      *   <li>验证模式参数的有效性（必须是MODE_LINEAR或MODE_CIRCULAR）</li>
-     *   <li>通过显示/隐藏不同的View实现模式切换：
+     *   <li>实现模式切换：
      *       <ul>
-     *         <li>线性模式：显示progressBackground和progressForeground，隐藏circularProgressView</li>
-     *         <li>环形模式：隐藏progressBackground和progressForeground，显示circularProgressView</li>
+     *         <li>线性模式：隐藏circularProgressView，由自身onDraw()绘制</li>
+     *         <li>环形模式：显示circularProgressView，自身不绘制线性部分</li>
      *       </ul>
      *   </li>
      *   <li>切换模式后立即更新进度显示，确保新模式下进度值正确</li>
@@ -345,7 +459,7 @@ initAccessibility();
      * 
      * <p><b>设计优势：</b></p>
      * <ul>
-     *   <li>两种模式的View都预先创建，切换时只需显示/隐藏，性能好</li>
+     *   <li>环形View第一次使用时创建，之后切换只需显示/隐藏，性能好</li>
      *   <li>切换模式时进度值保持不变，用户体验好</li>
      *   <li>不需要重新创建View，避免内存分配和GC</li>
      * </ul>
@@ -360,23 +474,70 @@ initAccessibility();
         
         this.progressMode = mode;
         
-        if (progressBackground != null && progressForeground != null && circularProgressView != null) {
-            if (mode == MODE_LINEAR) {
-                // 显示线性进度条
-                progressBackground.setVisibility(VISIBLE);
-                progressForeground.setVisibility(VISIBLE);
-                circularProgressView.setVisibility(GONE);
-            } else {
-                // 显示环形进度条
-                progressBackground.setVisibility(GONE);
-                progressForeground.setVisibility(GONE);
-                circularProgressView.setVisibility(VISIBLE);
-            }
-            // 更新进度显示
-            updateProgress();
+        if (mode == MODE_CIRCULAR) {
+            ensureCircularProgressView();
+        }
+        if (circularProgressView != null) {
+            circularProgressView.setVisibility(mode == MODE_LINEAR ? GONE : VISIBLE);
+        }
+        // 线性模式由自身绘制，两种模式wrap_content时的高度不同
+        requestLayout();
+        invalidate();
+        // 更新进度显示
+        updateProgress();
+        // 默认描述中包含模式名称，切换后需要通知
+        if (accessibilityScheduler != null) {
+            accessibilityScheduler.onDescriptionChanged();
+        }
+    }
+
+    /**
+     * 创建环形进度条View（只在第一次切换到环形模式时创建）
+     * 
+     * <p><b>为什么延迟创建？</b>大部分进度条只使用线性模式，不需要多创建一个200dp的View</p>
+     */
+    private void ensureCircularProgressView() {
+        if (circularProgressView != null) {
+            return;
+        }
+        int size = getResources().getDimensionPixelSize(R.dimen.progress_circular_size);
+        circularProgressView = new CircularProgressView(getContext());
+        // 内部的环形View由本View统一播报，避免同一个进度通知两次
+        ViewCompat.setImportantForAccessibility(circularProgressView, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO);
+        circularProgressView.setProgress(currentProgress);
+        circularProgressView.setIndeterminate(indeterminate);
+        addView(circularProgressView, new LayoutParams(size, size, Gravity.CENTER));
+    }
+
+    /**
+     * 设置环形模式是否显示不确定进度（旋转圆弧）
+     * 
+     * <p><b>功能：</b>不知道具体进度时显示Material风格的旋转圆弧，不需要再使用系统的android.widget.ProgressBar</p>
+     * 
+     * <p><b>注意：</b>只在环形模式下生效，线性模式仍然显示确定进度；动画在不可见或从窗口分离时自动暂停</p>
+     * 
+     * @param indeterminate true=不确定进度，false=确定进度
+     */
+    public void setIndeterminate(boolean indeterminate) {
+        if (this.indeterminate == indeterminate) {
+            return;
+        }
+        this.indeterminate = indeterminate;
+        if (circularProgressView != null) {
+            circularProgressView.setIndeterminate(indeterminate);
+        }
+        if (accessibilityScheduler != null) {
+            accessibilityScheduler.onDescriptionChanged();
         }
     }
 
+    /**
+     * 环形模式是否显示不确定进度
+     */
+    public boolean isIndeterminate() {
+        return indeterminate;
+    }
+
     /**
      * 获取进度条模式
      */
@@ -398,6 +559,7 @@ initAccessibility();
      */
     public void setAnimationDuration(int duration) {
         this.animationDuration = Math.max(0, duration);
+        spring.setDuration(animationDuration);
     }
 
     /**
@@ -411,52 +573,38 @@ initAccessibility();
     /**
      * 动画更新进度
      * 
-     * <p><b>功能：</b>使用ValueAnimator实现平滑的进度变化动画</p>
+     * <p><b>功能：</b>使用临界阻尼弹簧实现平滑的进度变化动画</p>
      * 
      * <p><b>实现原理：</b>
      * <ol>
-     *   <li><b>取消之前的动画：</b>如果已有动画在运行，先取消它，避免动画冲突</li>
-     *   <li><b>创建ValueAnimator：</b>使用ofFloat(from, to)创建浮点数动画</li>
-     *   <li><b>设置动画属性：</b>
-     *       <ul>
-     *         <li>duration：动画时长（可自定义）</li>
-     *         <li>interpolator：使用AccelerateDecelerateInterpolator实现先加速后减速的效果</li>
-     *       </ul>
-     *   </li>
-     *   <li><b>动画更新回调：</b>在addUpdateListener中实时更新currentProgress并刷新UI</li>
-     *   <li><b>启动动画：</b>调用start()开始动画</li>
+     *   <li><b>只修改目标值：</b>弹簧已经在运行时，只把目标值改成新的进度，位置和速度保持不变</li>
+     *   <li><b>逐帧推进：</b>弹簧通过Choreographer每帧回调一次，按真实的帧间隔计算新位置</li>
+     *   <li><b>更新回调：</b>在onSpringUpdate()中更新currentProgress并刷新UI</li>
+     *   <li><b>自动结束：</b>距离和速度都足够小时停在目标值，不再注册帧回调</li>
      * </ol>
      * 
-     * <p><b>为什么使用AccelerateDecelerateInterpolator？</b></p>
+     * <p><b>为什么不用ValueAnimator？</b></p>
      * <ul>
-     *   <li>提供自然的动画效果：开始慢→中间快→结束慢</li>
-     *   <li>符合用户的视觉习惯，看起来更流畅</li>
-     *   <li>比线性动画（LinearInterpolator）更有质感</li>
+     *   <li>每次设置进度都要取消旧动画、创建新的ValueAnimator和插值器</li>
+     *   <li>新动画从速度0重新加速，下载时每秒更新几十次，进度条一直在起步，追不上目标</li>
+     *   <li>弹簧在动画中转向新目标时保持速度，整个过程是连续的</li>
      * </ul>
      * 
-     * <p><b>性能优化：</b></p>
-     * <ul>
-     *   <li>每次创建新动画前都会取消旧动画，避免内存泄漏</li>
-     *   <li>动画更新时只更新必要的View，不会造成过度绘制</li>
-     * </ul>
+     * <p><b>动画时长：</b>约在animationDuration内走完99%的距离，剩下的距离很快衰减到0；
+     * 临界阻尼不会越过目标值，也不会来回振荡</p>
      * 
-     * @param from 起始进度值
      * @param to 目标进度值
      */
-    private void animateProgress(float from, float to) {
-        // 取消之前的动画
-        if (animator != null && animator.isRunning()) {
-            animator.cancel();
-        }
+    private void animateProgress(float to) {
+        spring.animateTo(to);
+    }
 
-        animator = ValueAnimator.ofFloat(from, to);
-        animator.setDuration(animationDuration);
-        animator.setInterpolator(new AccelerateDecelerateInterpolator());
-        animator.addUpdateListener(animation -> {
-            currentProgress = (float) animation.getAnimatedValue();
-            updateProgress();
-        });
-        animator.start();
+    /**
+     * 弹簧每帧的更新回调
+     */
+    private void onSpringUpdate(float value) {
+        currentProgress = Math.max(0f, Math.min(1f, value));
+        updateProgress();
     }
 
     /**
@@ -477,6 +625,75 @@ initAccessibility();
         
         // 更新无障碍信息
         updateAccessibilityInfo();
+        // 通知进度监听（下一帧统一回调）
+        scheduleProgressChanged();
+    }
+
+    /**
+     * 设置进度变化监听，任何显示值的变化都会回调
+     * 
+     * @param listener 监听，{@code null} 表示移除
+     */
+    public void setOnProgressChangeListener(@Nullable OnProgressChangeListener listener) {
+        setOnProgressChangeListener(listener, 0);
+    }
+
+    /**
+     * 设置进度变化监听
+     * 
+     * <p><b>为什么不用定时轮询getProgress()？</b></p>
+     * <ul>
+     *   <li>轮询的Handler一直在运行，即使进度不变、页面在后台，也会定时唤醒CPU</li>
+     *   <li>监听只在进度真正变化时回调，并且每帧最多一次：动画期间每帧更新、后台线程每秒写入几千次，都只回调一次最新值</li>
+     * </ul>
+     * 
+     * <p><b>百分比粒度：</b>例如granularityPercent=5时，只有进度跨过0%、5%、10%……时才回调，适合只显示整数百分比的文字</p>
+     * 
+     * @param listener 监听，{@code null} 表示移除
+     * @param granularityPercent 百分比粒度（1-100），0表示任何变化都回调
+     */
+    public void setOnProgressChangeListener(@Nullable OnProgressChangeListener listener, int granularityPercent) {
+        progressChangeListener = listener;
+        progressChangeGranularity = Math.max(0, Math.min(100, granularityPercent));
+        lastDispatchedKey = Long.MIN_VALUE;
+        if (listener == null) {
+            cancelProgressChanged();
+        } else {
+            // 设置后先回调一次当前进度
+            scheduleProgressChanged();
+        }
+    }
+
+    private void scheduleProgressChanged() {
+        if (progressChangeListener == null || progressChangePending) {
+            return;
+        }
+        progressChangePending = true;
+        // 同一帧内的多次变化只回调一次最新值
+        postOnAnimation(progressChangeDispatcher);
+    }
+
+    private void cancelProgressChanged() {
+        if (progressChangePending) {
+            progressChangePending = false;
+            removeCallbacks(progressChangeDispatcher);
+        }
+    }
+
+    private void dispatchProgressChanged() {
+        progressChangePending = false;
+        OnProgressChangeListener listener = progressChangeListener;
+        if (listener == null) {
+            return;
+        }
+        long key = progressChangeGranularity > 0
+                ? AccessibilityUpdateScheduler.toPercent(currentProgress) / progressChangeGranularity
+                : Float.floatToIntBits(currentProgress);
+        if (key == lastDispatchedKey) {
+            return;
+        }
+        lastDispatchedKey = key;
+        listener.onProgressChanged(this, currentProgress);
     }
 
     /**
@@ -493,57 +710,80 @@ initAccessibility();
      * </ul>
      */
     private void initAccessibility() {
-        // 设置为可访问的View
-        ViewCompat.setAccessibilityDelegate(this, new androidx.core.view.AccessibilityDelegateCompat() {
-            @Override
-            public void onInitializeAccessibilityNodeInfo(View host, AccessibilityNodeInfoCompat info) {
-                super.onInitializeAccessibilityNodeInfo(host, info);
-                
-                // 设置角色为进度条
-                info.setClassName(android.widget.ProgressBar.class.getName());
-                
-                // 设置进度信息
-                int progressPercent = (int) (currentProgress * 100);
-                info.setRangeInfo(
-                    AccessibilityNodeInfoCompat.RangeInfoCompat.obtain(
-                        AccessibilityNodeInfoCompat.RangeInfoCompat.RANGE_TYPE_INT,
-                        0f,  // min
-                        100f, // max
-                        (float) progressPercent  // current
-                    )
-                );
-                
-                // 设置内容描述
-                String contentDesc = getAccessibilityContentDescription();
-                if (contentDesc != null && !contentDesc.isEmpty()) {
-                    info.setContentDescription(contentDesc);
-                } else {
-                    // 默认描述
-                    String modeText = progressMode == MODE_LINEAR ? "线性" : "环形";
-                    info.setContentDescription(String.format("%s进度条，当前进度%d%%", modeText, progressPercent));
-                }
-            }
-        });
+        accessibilityScheduler = new AccessibilityUpdateScheduler(this);
+
+        // 设置为可访问的View（所有实例共用一个代理）
+        ViewCompat.setAccessibilityDelegate(this, ACCESSIBILITY_DELEGATE);
         
         // 设置为重要（不会被忽略）
         ViewCompat.setImportantForAccessibility(this, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_YES);
     }
 
+    /**
+     * 填充无障碍节点信息（由共用的无障碍代理调用）
+     */
+    private void onInitializeProgressNodeInfo(AccessibilityNodeInfoCompat info) {
+        // 设置角色为进度条
+        info.setClassName(android.widget.ProgressBar.class.getName());
+        
+        boolean showIndeterminate = indeterminate && progressMode == MODE_CIRCULAR;
+        String contentDesc = getAccessibilityContentDescription();
+        if (showIndeterminate) {
+            // 不确定进度没有进度值
+            info.setContentDescription(contentDesc != null && !contentDesc.isEmpty() ? contentDesc : "环形进度条，加载中");
+            return;
+        }
+        
+        // 设置进度信息
+        int progressPercent = (int) (currentProgress * 100);
+        info.setRangeInfo(
+            AccessibilityNodeInfoCompat.RangeInfoCompat.obtain(
+                AccessibilityNodeInfoCompat.RangeInfoCompat.RANGE_TYPE_INT,
+                0f,  // min
+                100f, // max
+                (float) progressPercent  // current
+            )
+        );
+        
+        // 设置内容描述
+        if (contentDesc != null && !contentDesc.isEmpty()) {
+            info.setContentDescription(contentDesc);
+        } else {
+            // 默认描述（按百分比缓存，不会每次都拼接字符串）
+            String label = progressMode == MODE_LINEAR ? "线性进度条" : "环形进度条";
+            info.setContentDescription(AccessibilityUpdateScheduler.getDescription(label, progressPercent));
+        }
+    }
+
     /**
      * 更新无障碍信息
      * 
-     * <p><b>功能：</b>当进度变化时，更新无障碍信息并发送事件</p>
+     * <p><b>功能：</b>当进度变化时，通知屏幕阅读器进度已更新</p>
+     * 
+     * <p><b>性能优化：</b>交给AccessibilityUpdateScheduler调度</p>
+     * <ul>
+     *   <li>没有开启无障碍服务时不做任何工作</li>
+     *   <li>只有整数百分比变化时才通知，动画期间不会每帧都发送事件</li>
+     *   <li>两次事件之间至少间隔 {@link #setAccessibilityThrottle(long)} 毫秒</li>
+     *   <li>描述文字在系统查询节点信息时才生成，并按百分比缓存</li>
+     * </ul>
      */
     private void updateAccessibilityInfo() {
-        // 发送无障碍事件，通知屏幕阅读器进度已更新
-        sendAccessibilityEvent(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
-        
-        // 更新内容描述
-        int progressPercent = (int) (currentProgress * 100);
-        String contentDesc = getAccessibilityContentDescription();
-        if (contentDesc == null || contentDesc.isEmpty()) {
-            String modeText = progressMode == MODE_LINEAR ? "线性" : "环形";
-            setContentDescription(String.format("%s进度条，当前进度%d%%", modeText, progressPercent));
+        if (accessibilityScheduler == null) {
+            // 构造过程中（init还没有执行到initAccessibility）
+            return;
+        }
+        accessibilityScheduler.onProgressChanged(currentProgress);
+    }
+
+    /**
+     * 设置无障碍事件的最小间隔
+     * 
+     * @param throttleMs 间隔（毫秒），默认500，0表示不限制
+     */
+    public void setAccessibilityThrottle(long throttleMs) {
+        if (accessibilityScheduler != null) {
+            accessibilityScheduler.setThrottle(throttleMs);
         }
     }
 
@@ -558,7 +798,9 @@ initAccessibility();
      */
     public void setAccessibilityContentDescription(String description) {
         this.accessibilityContentDescription = description;
-        updateAccessibilityInfo();
+        if (accessibilityScheduler != null) {
+            accessibilityScheduler.onDescriptionChanged();
+        }
     }
 
     /**
@@ -569,50 +811,23 @@ initAccessibility();
     }
 
     /**
-     * 更新线性进度条宽度
-     * 
-     * <p><b>功能：</b>更新线性模式下前景View的宽度，以显示当前进度</p>
+     * 更新线性进度条
      * 
-     * <p><b>实现原理：</b>
-     * <ol>
-     *   <li>获取背景View的实际宽度（backgroundWidth）</li>
-     *   <li>计算目标宽度：<code>targetWidth = backgroundWidth * currentProgress</code></li>
-     *   <li>修改前景View的LayoutParams.width</li>
-     *   <li>调用setLayoutParams()应用新的宽度</li>
-     * </ol>
+     * <p><b>功能：</b>线性模式下重绘进度条，以显示当前进度</p>
      * 
-     * <p><b>为什么需要检查宽度？</b></p>
-     * <ul>
-     *   <li>在View的onLayout完成之前，getWidth()可能返回0</li>
-     *   <li>如果宽度为0，使用post()延迟更新，等待布局完成</li>
-     *   <li>这确保了进度条在任何时候都能正确显示</li>
-     * </ul>
+     * <p><b>实现原理：</b>进度部分在ProgressDrawable.draw()中按 轨道宽度 × currentProgress 计算，
+     * 这里只需要修改Drawable的进度，只重绘进度条自身</p>
      * 
-     * <p><b>性能优化：</b></p>
+     * <p><b>为什么不修改子View的宽度？</b></p>
      * <ul>
-     *   <li>只有当宽度发生变化时才更新LayoutParams，避免不必要的布局计算</li>
-     *   <li>使用post()而不是直接更新，避免在布局过程中修改布局参数</li>
+     *   <li>修改LayoutParams会调用requestLayout()，一路向上请求重新布局</li>
+     *   <li>动画期间每帧都修改，整个页面每秒会重新布局60次</li>
+     *   <li>invalidate()只重绘，不影响父布局，也不需要等待布局完成</li>
      * </ul>
      */
     private void updateLinearProgress() {
-        if (progressForeground == null || progressBackground == null) {
-            return;
-        }
-
-        int backgroundWidth = progressBackground.getWidth();
-        if (backgroundWidth > 0) {
-            int targetWidth = (int) (backgroundWidth * currentProgress);
-            FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) progressForeground.getLayoutParams();
-            if (params != null) {
-                if (params.width != targetWidth) {
-                    params.width = targetWidth;
-                    progressForeground.setLayoutParams(params);
-                }
-            }
-        } else {
-            // 如果宽度还没确定，延迟更新
-            post(() -> updateLinearProgress());
-        }
+        // setProgress()修改Drawable的level，Drawable通过callback让本View重绘
+        linearDrawable.setProgress(currentProgress);
     }
 
     /**
@@ -640,6 +855,77 @@ initAccessibility();
         }
     }
 
+    /**
+     * 获取进度写入口
+     * 
+     * <p><b>功能：</b>后台线程直接写入进度，不需要每次都post到主线程</p>
+     * 
+     * <p><b>实现原理：</b></p>
+     * <ul>
+     *   <li>写入只更新一个原子变量，不分配内存，后写入的覆盖先写入的</li>
+     *   <li>通过Choreographer每帧最多应用一次最新值（带动画）</li>
+     *   <li>View没有添加到窗口或不可见时不注册帧回调，重新可见后应用最新值</li>
+     * </ul>
+     * 
+     * <p><b>使用示例：</b></p>
+     * <pre>
+     * ProgressSink sink = progressBar.getProgressSink();  // 主线程获取
+     * // 下载线程中
+     * sink.post((float) downloaded / total);
+     * </pre>
+     * 
+     * @return 进度写入口，同一个View始终返回同一个对象
+     */
+    @NonNull
+    public ProgressSink getProgressSink() {
+        return progressSink;
+    }
+
+    /**
+     * 绑定多任务进度汇总
+     * 
+     * <p><b>功能：</b>进度条直接显示ProgressAggregator的总进度，传输线程上报进度后不需要再手动设置</p>
+     * 
+     * <p><b>实现原理：</b>把本View的 {@link ProgressSink} 交给ProgressAggregator，每次上报只标记需要刷新，
+     * ProgressSink每帧最多一次读取汇总器当前的总进度并应用</p>
+     * 
+     * @param aggregator 要绑定的汇总，{@code null} 表示解除绑定
+     */
+    public void bindAggregator(@Nullable ProgressAggregator aggregator) {
+        if (boundAggregator == aggregator) {
+            return;
+        }
+        if (boundAggregator != null) {
+            boundAggregator.setProgressSink(null);
+        }
+        boundAggregator = aggregator;
+        if (aggregator != null) {
+            aggregator.setProgressSink(progressSink);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        progressSink.setActive(isShown());
+        linearDrawable.setVisible(isShown(), false);
+        // 分离期间取消的回调，重新添加后补上（进度没变时不会重复回调）
+        scheduleProgressChanged();
+    }
+
+    /**
+     * 可见性变化时调用（包括父View的可见性变化）
+     * 
+     * <p>不可见时暂停应用后台线程写入的进度，避免为看不到的进度条注册帧回调</p>
+     */
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        progressSink.setActive(isVisible && isAttachedToWindow());
+        // 不可见时暂停条纹动画
+        linearDrawable.setVisible(isVisible, false);
+    }
+
     /**
      * View从窗口分离时调用
      * 
@@ -653,8 +939,8 @@ initAccessibility();
      * <p><b>实现原理：</b>
      * <ol>
      *   <li>调用父类方法完成基础清理</li>
-     *   <li>如果动画正在运行，调用cancel()取消动画</li>
-     *   <li>将animator设置为null，释放引用</li>
+     *   <li>如果动画正在运行，直接跳到目标值并移除帧回调，再用目标值刷新绘制、无障碍状态和进度监听</li>
+     *   <li>停止接收后台线程写入的进度，取消还没执行的回调</li>
      * </ol>
      * 
      * <p><b>调用时机：</b></p>
@@ -669,10 +955,17 @@ initAccessibility();
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        // 清理动画
-        if (animator != null) {
-            animator.cancel();
-            animator = null;
+        // 清理动画：直接停在目标值，并和动画结束时一样刷新绘制和无障碍状态，重新添加到窗口时显示的是最终进度
+        if (spring.isRunning()) {
+            float target = spring.getTarget();
+            spring.jumpTo(target);
+            onSpringUpdate(target);
+        }
+        progressSink.setActive(false);
+        linearDrawable.setVisible(false, false);
+        cancelProgressChanged();
+        if (accessibilityScheduler != null) {
+            accessibilityScheduler.cancel();
         }
     }
 }
@@ -0,0 +1,239 @@
+package com.example.progressbar;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多任务进度汇总（纯Java，不依赖View）
+ *
+ * <p><b>为什么需要它？</b></p>
+ * <ul>
+ *   <li>多个文件同时传输时需要一个总进度，以前用synchronized块手动求和，每个数据块都要抢同一把锁，传输线程被串行化</li>
+ *   <li>总进度之外还需要速度和剩余时间的估算</li>
+ * </ul>
+ *
+ * <p><b>实现原理：</b></p>
+ * <ol>
+ *   <li>每个任务有一个权重（例如文件字节数），已完成量存放在AtomicLongArray中，总完成量存放在一个AtomicLong中，
+ *       上报进度只是几次CAS/原子加法，不加锁、不分配内存</li>
+ *   <li>总进度 = 总完成量 / 总权重，读取是O(1)的</li>
+ *   <li>速度是按时间加权的指数移动平均（EWMA）：每隔一个采样间隔，由第一个CAS抢到采样时间的线程计算一次，
+ *       其他线程直接跳过，不会互相等待</li>
+ *   <li>剩余时间 = 剩余量 / 平均速度</li>
+ *   <li>绑定到 CustomProgressBar 后，每次上报只标记它的 {@link ProgressSink} 需要刷新，
+ *       帧回调时再读取当前的总进度，每帧最多刷新一次；各线程上报的先后顺序不影响显示的值</li>
+ * </ol>
+ *
+ * <p><b>使用示例：</b></p>
+ * <pre>
+ * ProgressAggregator aggregator = new ProgressAggregator(new long[]{file1.length(), file2.length()});
+ * progressBar.bindAggregator(aggregator);
+ * // 传输线程中，每个数据块
+ * aggregator.add(fileIndex, bytesRead);
+ * // 显示速度和剩余时间
+ * aggregator.getThroughput();  // 每秒完成的量（字节/秒）
+ * aggregator.getEtaMillis();   // 剩余时间，未知时返回-1
+ * </pre>
+ *
+ * <p>所有方法都可以在任意线程调用。</p>
+ */
+public final class ProgressAggregator {
+    // 采样间隔：两次速度计算之间至少间隔250ms
+    private static final long SAMPLE_INTERVAL_NANOS = 250_000_000L;
+    // 平滑时间常数：约3秒前的速度权重衰减到1/e
+    private static final double SMOOTHING_SECONDS = 3.0;
+
+    private final long[] totals;
+    private final long grandTotal;
+    private final AtomicLongArray done;
+    private final AtomicLong doneTotal = new AtomicLong();
+
+    // 速度估算：只有抢到采样时间的线程会写入
+    private final AtomicLong lastSampleNanos;
+    private volatile long lastSampleDone;
+    private volatile double throughput;
+    private volatile boolean hasThroughput;
+
+    private volatile ProgressSink sink;
+
+    /**
+     * @param taskWeights 每个任务的权重（例如字节数），小于0按0处理
+     */
+    public ProgressAggregator(@NonNull long[] taskWeights) {
+        this(taskWeights, System.nanoTime());
+    }
+
+    /**
+     * 指定第一个采样区间的起始时间（测试中用 {@link #sample(long)} 模拟时间流逝）
+     */
+    ProgressAggregator(@NonNull long[] taskWeights, long startNanos) {
+        totals = new long[taskWeights.length];
+        long sum = 0;
+        for (int i = 0; i < taskWeights.length; i++) {
+            totals[i] = Math.max(0, taskWeights[i]);
+            sum += totals[i];
+        }
+        grandTotal = sum;
+        done = new AtomicLongArray(taskWeights.length);
+        lastSampleNanos = new AtomicLong(startNanos);
+    }
+
+    /**
+     * 任务数量
+     */
+    public int getTaskCount() {
+        return totals.length;
+    }
+
+    /**
+     * 任务完成量增加delta（结果限制在0到该任务的权重之间）
+     */
+    public void add(int task, long delta) {
+        long previous;
+        long next;
+        do {
+            previous = done.get(task);
+            next = Math.max(0, Math.min(totals[task], previous + delta));
+        } while (!done.compareAndSet(task, previous, next));
+        applyDelta(next - previous);
+    }
+
+    /**
+     * 设置任务的完成量（结果限制在0到该任务的权重之间）
+     */
+    public void set(int task, long value) {
+        long next = Math.max(0, Math.min(totals[task], value));
+        long previous = done.getAndSet(task, next);
+        applyDelta(next - previous);
+    }
+
+    /**
+     * 按比例设置任务的进度
+     *
+     * @param fraction 进度（0-1）
+     */
+    public void setFraction(int task, float fraction) {
+        set(task, (long) (totals[task] * (double) Math.max(0f, Math.min(1f, fraction))));
+    }
+
+    /**
+     * 标记任务完成
+     */
+    public void complete(int task) {
+        set(task, totals[task]);
+    }
+
+    private void applyDelta(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        doneTotal.addAndGet(delta);
+        sample(System.nanoTime());
+        ProgressSink currentSink = sink;
+        if (currentSink != null) {
+            // 不写入本线程算出的总量：另一个线程可能已经写入了更新的值，帧回调时统一读取最新的总量
+            currentSink.invalidate();
+        }
+    }
+
+    /**
+     * 到了采样时间时计算一次速度，同一个采样间隔内只有一个线程会计算
+     */
+    void sample(long now) {
+        long last = lastSampleNanos.get();
+        long elapsed = now - last;
+        if (elapsed < SAMPLE_INTERVAL_NANOS || !lastSampleNanos.compareAndSet(last, now)) {
+            return;
+        }
+        // 抢到采样的线程重新读取总量，保证各次采样读到的总量按时间顺序
+        long total = doneTotal.get();
+        long previousDone = lastSampleDone;
+        lastSampleDone = total;
+        double seconds = elapsed / 1_000_000_000.0;
+        double instant = Math.max(0, total - previousDone) / seconds;
+        if (!hasThroughput) {
+            throughput = instant;
+            hasThroughput = true;
+        } else {
+            // 按实际间隔计算权重，采样间隔不均匀时也正确
+            double alpha = 1.0 - Math.exp(-seconds / SMOOTHING_SECONDS);
+            double current = throughput;
+            throughput = current + alpha * (instant - current);
+        }
+    }
+
+    private float toFraction(long total) {
+        return grandTotal > 0 ? (float) ((double) total / grandTotal) : 0f;
+    }
+
+    /**
+     * 总进度（0-1）
+     */
+    public float getProgress() {
+        return toFraction(doneTotal.get());
+    }
+
+    /**
+     * 任务的进度（0-1）
+     */
+    public float getTaskProgress(int task) {
+        return totals[task] > 0 ? (float) ((double) done.get(task) / totals[task]) : 0f;
+    }
+
+    /**
+     * 总完成量
+     */
+    public long getDone() {
+        return doneTotal.get();
+    }
+
+    /**
+     * 总权重
+     */
+    public long getTotal() {
+        return grandTotal;
+    }
+
+    /**
+     * 平均速度（每秒完成的量），还没有采样时返回0
+     *
+     * 读取时也会按当前时间采样，传输停顿时速度会逐渐下降
+     */
+    public double getThroughput() {
+        sample(System.nanoTime());
+        return throughput;
+    }
+
+    /**
+     * 预计剩余时间（毫秒），速度未知时返回-1，已全部完成时返回0
+     */
+    public long getEtaMillis() {
+        long remaining = grandTotal - doneTotal.get();
+        if (remaining <= 0) {
+            return 0;
+        }
+        double speed = getThroughput();
+        if (speed <= 0) {
+            return -1;
+        }
+        return (long) (remaining / speed * 1000);
+    }
+
+    /**
+     * 设置进度写入口，每次上报后通知它在下一帧读取最新的总进度（{@code null} 表示不再通知）
+     */
+    public void setProgressSink(@Nullable ProgressSink sink) {
+        ProgressSink previous = this.sink;
+        if (previous != null && previous != sink) {
+            previous.clearSource(this);
+        }
+        this.sink = sink;
+        if (sink != null) {
+            sink.setSource(this);
+            sink.invalidate();
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.progressbar;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.SweepGradient;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+/**
+ * 进度条Drawable：线性和环形两种模式，不需要任何View
+ *
+ * <p><b>为什么需要它？</b></p>
+ * <ul>
+ *   <li>列表每一行都放一个CustomProgressBar，每行都会多出几层View和一个无障碍代理</li>
+ *   <li>Drawable可以直接设置为任意View的背景/前景，或者在ItemDecoration中绘制，行内不需要额外的View</li>
+ * </ul>
+ *
+ * <p><b>实现原理：</b></p>
+ * <ol>
+ *   <li>进度使用Drawable的level表示（0-10000），setLevel()后只调用invalidateSelf()</li>
+ *   <li>模式、颜色、线宽等配置放在 {@link ConstantState} 中，
+ *       通过 getConstantState().newDrawable() 创建的Drawable共享同一份配置，只有level各自独立</li>
+ *   <li>需要单独修改配置时先调用 {@link #mutate()}，复制一份自己的配置</li>
+ *   <li>Paint、RectF预先创建，draw()中不分配内存；共享配置被修改后，其他Drawable在下次draw()时同步画笔</li>
+ * </ol>
+ *
+ * <p><b>填充样式：</b></p>
+ * <ul>
+ *   <li>{@link #FILL_SOLID}：纯色（默认）</li>
+ *   <li>{@link #FILL_GRADIENT}：渐变，线性模式使用LinearGradient（从轨道左端到右端），环形模式使用SweepGradient（从顶部顺时针）</li>
+ *   <li>{@link #FILL_STRIPES}：斜条纹，使用平铺的BitmapShader，调用 {@link #start()} 后条纹向右移动</li>
+ * </ul>
+ * <p>Shader只在尺寸或颜色变化时重新创建；条纹动画只修改Shader的local matrix（复用同一个Matrix），
+ * 每帧仍然只有一次绘制进度的调用，不分配内存。</p>
+ *
+ * <p><b>使用示例：</b></p>
+ * <pre>
+ * ProgressDrawable drawable = new ProgressDrawable(context, ProgressDrawable.MODE_LINEAR);
+ * itemView.setForeground(drawable);
+ * drawable.setProgress(0.5f);
+ * </pre>
+ */
+public class ProgressDrawable extends Drawable implements Animatable {
+    public static final int MODE_LINEAR = CustomProgressBar.MODE_LINEAR;
+    public static final int MODE_CIRCULAR = CustomProgressBar.MODE_CIRCULAR;
+
+    /** 填充样式：纯色 */
+    public static final int FILL_SOLID = 0;
+    /** 填充样式：渐变 */
+    public static final int FILL_GRADIENT = 1;
+    /** 填充样式：斜条纹 */
+    public static final int FILL_STRIPES = 2;
+
+    private static final int MAX_LEVEL = 10000;
+    // 条纹每1秒移动一个周期
+    private static final long STRIPE_CYCLE_MS = 1000;
+    private static final long FRAME_DELAY_MS = 16;
+
+    private ProgressState state;
+    private boolean mutated;
+    private final Paint trackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF trackRect = new RectF();
+    private final RectF fillRect = new RectF();
+    private int alpha = 255;
+    // 画笔和区域对应的配置版本，共享配置被其他Drawable修改后在draw()中同步
+    private int appliedGeneration = -1;
+
+    // 缓存的Shader：渐变随尺寸和颜色变化，条纹位图只随颜色和条纹宽度变化
+    private Shader gradientShader;
+    private BitmapShader stripeShader;
+    private int shaderGeneration = -1;
+    private boolean gradientDirty;
+    // 渐变创建时的位置：线性模式为轨道左右端，环形模式为圆心；
+    // 只有位置变化才重建，同样宽度的轨道只是上下移动时（例如列表的每一行）复用同一个渐变
+    private float gradientAnchor0;
+    private float gradientAnchor1;
+    private boolean stripeDirty;
+    private final Matrix shaderMatrix = new Matrix();
+    private float stripePeriod; // 条纹在水平方向上的周期（像素）
+
+    // 条纹动画
+    private boolean running;
+    private long stripeStartTime;
+    private boolean frameScheduled;
+    private final Runnable nextFrame = () -> {
+        frameScheduled = false;
+        invalidateSelf();
+    };
+
+    /**
+     * 使用组件默认的颜色和尺寸创建
+     *
+     * @param mode {@link #MODE_LINEAR} 或 {@link #MODE_CIRCULAR}
+     */
+    public ProgressDrawable(@NonNull Context context, int mode) {
+        this(new ProgressState());
+        Resources res = context.getResources();
+        state.mode = mode == MODE_CIRCULAR ? MODE_CIRCULAR : MODE_LINEAR;
+        state.trackColor = ContextCompat.getColor(context, R.color.progress_background_color);
+        state.fillColor = ContextCompat.getColor(context, R.color.progress_foreground_color);
+        state.thickness = res.getDimension(state.mode == MODE_CIRCULAR
+                ? R.dimen.progress_circular_stroke_width : R.dimen.progress_track_height);
+        state.cornerRadius = res.getDimension(R.dimen.progress_track_corner_radius);
+        state.gradientEndColor = ContextCompat.getColor(context, R.color.progress_gradient_end_color);
+        state.stripeColor = ContextCompat.getColor(context, R.color.progress_stripe_color);
+        state.stripeWidth = res.getDimension(R.dimen.progress_stripe_width);
+        updatePaints();
+    }
+
+    private ProgressDrawable(@NonNull ProgressState state) {
+        this.state = state;
+        updatePaints();
+    }
+
+    /**
+     * 设置进度值（0-1），等同于 setLevel(progress * 10000)
+     */
+    public void setProgress(float progress) {
+        setLevel(Math.round(Math.max(0f, Math.min(1f, progress)) * MAX_LEVEL));
+    }
+
+    /**
+     * 获取进度值（0-1）
+     */
+    public float getProgress() {
+        return getLevel() / (float) MAX_LEVEL;
+    }
+
+    /**
+     * 获取模式
+     */
+    public int getMode() {
+        return state.mode;
+    }
+
+    /**
+     * 设置轨道颜色和进度颜色（会影响共享同一份配置的其他Drawable，需要单独修改时先调用mutate()）
+     */
+    public void setColors(@ColorInt int trackColor, @ColorInt int fillColor) {
+        state.trackColor = trackColor;
+        state.fillColor = fillColor;
+        state.generation++;
+        updatePaints();
+        invalidateSelf();
+    }
+
+    @ColorInt
+    public int getTrackColor() {
+        return state.trackColor;
+    }
+
+    @ColorInt
+    public int getFillColor() {
+        return state.fillColor;
+    }
+
+    /**
+     * 设置粗细：线性模式为轨道高度，环形模式为线宽（像素）
+     */
+    public void setThickness(float thickness) {
+        state.thickness = Math.max(0f, thickness);
+        state.generation++;
+        updatePaints();
+        updateTrackRect(getBounds());
+        invalidateSelf();
+    }
+
+    public float getThickness() {
+        return state.thickness;
+    }
+
+    /**
+     * 设置线性模式的圆角半径（像素）
+     */
+    public void setCornerRadius(float cornerRadius) {
+        state.cornerRadius = Math.max(0f, cornerRadius);
+        state.generation++;
+        invalidateSelf();
+    }
+
+    /**
+     * 设置填充样式
+     *
+     * @param fillStyle {@link #FILL_SOLID}、{@link #FILL_GRADIENT} 或 {@link #FILL_STRIPES}
+     */
+    public void setFillStyle(int fillStyle) {
+        if (fillStyle != FILL_GRADIENT && fillStyle != FILL_STRIPES) {
+            fillStyle = FILL_SOLID;
+        }
+        if (state.fillStyle != fillStyle) {
+            state.fillStyle = fillStyle;
+            state.generation++;
+            updatePaints();
+            invalidateSelf();
+        }
+    }
+
+    public int getFillStyle() {
+        return state.fillStyle;
+    }
+
+    /**
+     * 设置渐变的起止颜色（起始颜色同时作为进度颜色）
+     */
+    public void setGradientColors(@ColorInt int startColor, @ColorInt int endColor) {
+        state.fillColor = startColor;
+        state.gradientEndColor = endColor;
+        state.generation++;
+        updatePaints();
+        invalidateSelf();
+    }
+
+    @ColorInt
+    public int getGradientEndColor() {
+        return state.gradientEndColor;
+    }
+
+    /**
+     * 设置条纹颜色（画在进度颜色上，通常是半透明的白色）和条纹宽度（像素）
+     */
+    public void setStripes(@ColorInt int stripeColor, float stripeWidth) {
+        state.stripeColor = stripeColor;
+        state.stripeWidth = Math.max(1f, stripeWidth);
+        state.generation++;
+        updatePaints();
+        invalidateSelf();
+    }
+
+    /**
+     * 开始条纹动画（只在 {@link #FILL_STRIPES} 样式下可见）
+     */
+    @Override
+    public void start() {
+        if (!running) {
+            running = true;
+            stripeStartTime = SystemClock.uptimeMillis();
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * 停止条纹动画，条纹停在当前位置
+     */
+    @Override
+    public void stop() {
+        running = false;
+        cancelNextFrame();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        boolean changed = super.setVisible(visible, restart);
+        if (!visible) {
+            // 不可见时不再请求下一帧，重新可见后继续
+            cancelNextFrame();
+        } else if (changed && running) {
+            invalidateSelf();
+        }
+        return changed;
+    }
+
+    private void cancelNextFrame() {
+        if (frameScheduled) {
+            frameScheduled = false;
+            unscheduleSelf(nextFrame);
+        }
+    }
+
+    private void updatePaints() {
+        appliedGeneration = state.generation;
+        trackPaint.setColor(state.trackColor);
+        fillPaint.setColor(state.fillColor);
+        trackPaint.setAlpha(modulateAlpha(state.trackColor));
+        // 使用Shader时颜色来自Shader，画笔只提供整体透明度
+        fillPaint.setAlpha(state.fillStyle == FILL_SOLID ? modulateAlpha(state.fillColor) : alpha);
+        fillPaint.setFilterBitmap(state.fillStyle == FILL_STRIPES);
+        if (state.fillStyle == FILL_SOLID) {
+            fillPaint.setShader(null);
+        }
+        if (state.mode == MODE_CIRCULAR) {
+            trackPaint.setStyle(Paint.Style.STROKE);
+            fillPaint.setStyle(Paint.Style.STROKE);
+            trackPaint.setStrokeWidth(state.thickness);
+            fillPaint.setStrokeWidth(state.thickness);
+            fillPaint.setStrokeCap(Paint.Cap.ROUND);
+        } else {
+            trackPaint.setStyle(Paint.Style.FILL);
+            fillPaint.setStyle(Paint.Style.FILL);
+        }
+    }
+
+    private int modulateAlpha(int color) {
+        int colorAlpha = color >>> 24;
+        return colorAlpha * (alpha + (alpha >> 7)) >> 8;
+    }
+
+    @Override
+    protected void onBoundsChange(@NonNull Rect bounds) {
+        super.onBoundsChange(bounds);
+        updateTrackRect(bounds);
+    }
+
+    private void updateTrackRect(Rect bounds) {
+        if (state.mode == MODE_CIRCULAR) {
+            // 居中的正方形，留出线宽的一半
+            float size = Math.min(bounds.width(), bounds.height());
+            float inset = state.thickness / 2f;
+            float left = bounds.exactCenterX() - size / 2f + inset;
+            float top = bounds.exactCenterY() - size / 2f + inset;
+            trackRect.set(left, top, left + size - state.thickness, top + size - state.thickness);
+        } else {
+            // 轨道在bounds中垂直居中
+            float height = Math.min(state.thickness, bounds.height());
+            float top = bounds.exactCenterY() - height / 2f;
+            trackRect.set(bounds.left, top, bounds.right, top + height);
+        }
+    }
+
+    /**
+     * 按需重建当前填充样式的Shader（只在轨道位置、尺寸或颜色变化后执行一次）
+     */
+    private void ensureShader() {
+        if (shaderGeneration != state.generation) {
+            shaderGeneration = state.generation;
+            gradientDirty = true;
+            stripeDirty = true;
+        }
+        if (state.fillStyle == FILL_GRADIENT) {
+            float anchor0 = state.mode == MODE_CIRCULAR ? trackRect.centerX() : trackRect.left;
+            float anchor1 = state.mode == MODE_CIRCULAR ? trackRect.centerY() : trackRect.right;
+            if (!gradientDirty && anchor0 == gradientAnchor0 && anchor1 == gradientAnchor1) {
+                return;
+            }
+            gradientDirty = false;
+            gradientAnchor0 = anchor0;
+            gradientAnchor1 = anchor1;
+            if (state.mode == MODE_CIRCULAR) {
+                gradientShader = new SweepGradient(trackRect.centerX(), trackRect.centerY(),
+                        state.fillColor, state.gradientEndColor);
+                // SweepGradient从3点钟方向开始，旋转到12点钟方向，与进度圆弧的起点一致
+                shaderMatrix.setRotate(-90, trackRect.centerX(), trackRect.centerY());
+                gradientShader.setLocalMatrix(shaderMatrix);
+            } else {
+                gradientShader = new LinearGradient(trackRect.left, 0, trackRect.right, 0,
+                        state.fillColor, state.gradientEndColor, Shader.TileMode.CLAMP);
+            }
+            fillPaint.setShader(gradientShader);
+        } else if (state.fillStyle == FILL_STRIPES && stripeDirty) {
+            stripeDirty = false;
+            // 一个周期的竖条纹：左半部分是条纹颜色（叠加在进度颜色上），右半部分是进度颜色，高度1像素平铺即可
+            int period = Math.max(2, Math.round(state.stripeWidth * 2));
+            Bitmap tile = Bitmap.createBitmap(period, 1, Bitmap.Config.ARGB_8888);
+            tile.eraseColor(state.fillColor);
+            Paint stripePaint = new Paint();
+            stripePaint.setColor(state.stripeColor);
+            new Canvas(tile).drawRect(0, 0, period / 2f, 1, stripePaint);
+            stripeShader = new BitmapShader(tile, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
+            // 旋转45°后，水平方向上的周期是 period × √2
+            stripePeriod = (float) (period * Math.sqrt(2));
+            updateStripeMatrix(0f);
+            fillPaint.setShader(stripeShader);
+        }
+    }
+
+    /**
+     * 竖条纹旋转45°成斜条纹，再水平平移offset
+     */
+    private void updateStripeMatrix(float offset) {
+        shaderMatrix.setRotate(45);
+        shaderMatrix.postTranslate(offset, 0);
+        stripeShader.setLocalMatrix(shaderMatrix);
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        if (appliedGeneration != state.generation) {
+            updatePaints();
+            updateTrackRect(getBounds());
+        }
+        if (trackRect.width() <= 0 || trackRect.height() <= 0) {
+            return;
+        }
+        ensureShader();
+        if (state.fillStyle == FILL_STRIPES && running) {
+            long now = SystemClock.uptimeMillis();
+            float phase = (now - stripeStartTime) % STRIPE_CYCLE_MS / (float) STRIPE_CYCLE_MS;
+            updateStripeMatrix(phase * stripePeriod);
+            if (!frameScheduled && isVisible() && getCallback() != null) {
+                frameScheduled = true;
+                scheduleSelf(nextFrame, now + FRAME_DELAY_MS);
+            }
+        }
+        float progress = getProgress();
+        if (state.mode == MODE_CIRCULAR) {
+            canvas.drawOval(trackRect, trackPaint);
+            if (progress > 0f) {
+                canvas.drawArc(trackRect, -90, progress * 360, false, fillPaint);
+            }
+        } else {
+            float radius = state.cornerRadius;
+            canvas.drawRoundRect(trackRect, radius, radius, trackPaint);
+            if (progress > 0f) {
+                fillRect.set(trackRect.left, trackRect.top,
+                        trackRect.left + trackRect.width() * progress, trackRect.bottom);
+                canvas.drawRoundRect(fillRect, radius, radius, fillPaint);
+            }
+        }
+    }
+
+    @Override
+    protected boolean onLevelChange(int level) {
+        invalidateSelf();
+        return true;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return state.mode == MODE_LINEAR ? Math.round(state.thickness) : -1;
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (this.alpha != alpha) {
+            this.alpha = alpha;
+            updatePaints();
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        trackPaint.setColorFilter(colorFilter);
+        fillPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Nullable
+    @Override
+    public ConstantState getConstantState() {
+        return state;
+    }
+
+    @NonNull
+    @Override
+    public Drawable mutate() {
+        if (!mutated && super.mutate() == this) {
+            state = new ProgressState(state);
+            mutated = true;
+        }
+        return this;
+    }
+
+    /**
+     * 共享的配置：同一份配置创建出的Drawable只有进度（level）各自独立
+     */
+    static final class ProgressState extends ConstantState {
+        int mode = MODE_LINEAR;
+        int trackColor;
+        int fillColor;
+        float thickness;
+        float cornerRadius;
+        int fillStyle = FILL_SOLID;
+        int gradientEndColor;
+        int stripeColor;
+        float stripeWidth;
+        // 每次修改配置加1
+        int generation;
+
+        ProgressState() {
+        }
+
+        ProgressState(@NonNull ProgressState other) {
+            mode = other.mode;
+            trackColor = other.trackColor;
+            fillColor = other.fillColor;
+            thickness = other.thickness;
+            cornerRadius = other.cornerRadius;
+            fillStyle = other.fillStyle;
+            gradientEndColor = other.gradientEndColor;
+            stripeColor = other.stripeColor;
+            stripeWidth = other.stripeWidth;
+            // 保留版本号：mutate()后版本号不能回退，否则缓存的画笔和Shader会被误认为是最新的
+            generation = other.generation;
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new ProgressDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.progressbar;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 列表行进度条ItemDecoration（可选）
+ *
+ * <p><b>为什么需要它？</b></p>
+ * <ul>
+ *   <li>传输列表每一行都有进度条，如果每行放一个CustomProgressBar，每行都要多出几层View</li>
+ *   <li>ItemDecoration在RecyclerView绘制时直接把进度画在行的底部，行内不需要任何额外的View，
+ *       行被复用时也不需要重新inflate</li>
+ * </ul>
+ *
+ * <p><b>实现原理：</b></p>
+ * <ol>
+ *   <li>所有行共用一个 {@link ProgressDrawable}，绘制每一行前修改它的bounds和进度</li>
+ *   <li>进度来自 {@link ProgressProvider}，按adapter position查询，返回负数表示这一行不显示进度</li>
+ *   <li>进度变化后调用 recyclerView.invalidate() 重绘即可，不需要notifyItemChanged()，也不会重新布局</li>
+ * </ol>
+ *
+ * <p><b>使用示例：</b></p>
+ * <pre>
+ * recyclerView.addItemDecoration(new ProgressItemDecoration(context,
+ *         position -> tasks.get(position).getProgress()));
+ * // 进度更新后
+ * recyclerView.invalidate();
+ * </pre>
+ *
+ * <p>进度条画在行内容上方（onDrawOver），不占用额外空间；需要RecyclerView依赖，模块本身只在编译时依赖它。</p>
+ */
+public class ProgressItemDecoration extends RecyclerView.ItemDecoration {
+
+    /**
+     * 行进度提供者
+     */
+    public interface ProgressProvider {
+        /**
+         * @param adapterPosition 行的adapter position
+         * @return 进度值（0-1），返回负数表示这一行不显示进度条
+         */
+        float getProgress(int adapterPosition);
+    }
+
+    private final ProgressDrawable drawable;
+    private final ProgressProvider provider;
+    private int height;
+    private int insetLeft;
+    private int insetRight;
+    private int insetBottom;
+
+    public ProgressItemDecoration(@NonNull Context context, @NonNull ProgressProvider provider) {
+        this.provider = provider;
+        this.drawable = new ProgressDrawable(context, ProgressDrawable.MODE_LINEAR);
+        this.height = context.getResources().getDimensionPixelSize(R.dimen.progress_item_decoration_height);
+        this.drawable.setThickness(height);
+        this.drawable.setCornerRadius(height / 2f);
+    }
+
+    /**
+     * 获取绘制用的Drawable，可以修改颜色等配置
+     */
+    @NonNull
+    public ProgressDrawable getDrawable() {
+        return drawable;
+    }
+
+    /**
+     * 设置进度条高度（像素）
+     */
+    public void setHeight(int height) {
+        this.height = Math.max(0, height);
+        drawable.setThickness(this.height);
+        drawable.setCornerRadius(this.height / 2f);
+    }
+
+    /**
+     * 设置进度条距离行左、右、下边缘的距离（像素）
+     */
+    public void setInsets(int left, int right, int bottom) {
+        this.insetLeft = left;
+        this.insetRight = right;
+        this.insetBottom = bottom;
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        int childCount = parent.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION) {
+                continue;
+            }
+            float progress = provider.getProgress(position);
+            if (progress < 0f) {
+                continue;
+            }
+            // 跟随行的位移动画（增删、拖动时的translation）
+            int translationX = Math.round(child.getTranslationX());
+            int translationY = Math.round(child.getTranslationY());
+            int bottom = child.getBottom() + translationY - insetBottom;
+            drawable.setBounds(child.getLeft() + translationX + insetLeft, bottom - height,
+                    child.getRight() + translationX - insetRight, bottom);
+            drawable.setProgress(progress);
+            drawable.draw(c);
+        }
+    }
+}
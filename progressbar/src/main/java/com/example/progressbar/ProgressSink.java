@@ -0,0 +1,139 @@
+package com.example.progressbar;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进度写入口：可以在任意线程写入进度，每帧最多应用一次到View
+ *
+ * <p><b>为什么需要它？</b></p>
+ * <ul>
+ *   <li>下载/上传线程每秒可能上报几千次进度，每次都post到主线程会产生大量Runnable和消息</li>
+ *   <li>屏幕每秒只刷新60次左右，两帧之间的中间值都是没有用的</li>
+ * </ul>
+ *
+ * <p><b>实现原理：</b></p>
+ * <ol>
+ *   <li>最新的进度值以float的位存放在一个AtomicInteger中，写入只是一次原子set，不分配内存，后写入的覆盖先写入的</li>
+ *   <li>第一次写入时通过Choreographer注册一个帧回调（回调对象是固定的），同一帧内的其他写入只更新值</li>
+ *   <li>帧回调在主线程读取最新值并应用到View</li>
+ *   <li>绑定 {@link ProgressAggregator} 后改为拉取：上报只标记需要刷新，帧回调读取汇总器当前的总进度，
+ *       多个线程的上报先后顺序不会让进度回退到旧值</li>
+ *   <li>View没有添加到窗口或不可见时不注册帧回调，最新值保留到View重新可见时再应用</li>
+ * </ol>
+ *
+ * <p><b>使用示例：</b></p>
+ * <pre>
+ * ProgressSink sink = progressBar.getProgressSink();  // 主线程获取
+ * // 下载线程
+ * sink.post((float) downloadedBytes / totalBytes);
+ * </pre>
+ */
+public final class ProgressSink {
+
+    /**
+     * 进度应用目标（主线程回调）
+     */
+    interface Target {
+        void onSinkProgress(float progress);
+    }
+
+    private final Target target;
+    // 在主线程的setActive(true)中获取，之后才会注册帧回调（active是volatile，写入active之前赋值）
+    private volatile Choreographer choreographer;
+    private final AtomicInteger latestBits = new AtomicInteger();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean frameScheduled = new AtomicBoolean();
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> applyLatest();
+    private volatile boolean active;
+    // 绑定的汇总器，不为null时帧回调读取它的总进度（post写入的值不再使用）
+    private volatile ProgressAggregator source;
+
+    /**
+     * 可以在任意线程创建（例如后台inflate），主线程的Choreographer在View第一次可见时才获取
+     */
+    ProgressSink(@NonNull Target target) {
+        this.target = target;
+    }
+
+    /**
+     * 写入最新进度，可以在任意线程调用
+     *
+     * @param progress 进度值，范围0-1，超出范围由View限制
+     */
+    public void post(float progress) {
+        latestBits.set(Float.floatToRawIntBits(progress));
+        dirty.set(true);
+        scheduleIfNeeded();
+    }
+
+    /**
+     * 标记需要刷新，帧回调时读取绑定汇总器的最新总进度，可以在任意线程调用
+     */
+    void invalidate() {
+        dirty.set(true);
+        scheduleIfNeeded();
+    }
+
+    /**
+     * 绑定汇总器（由 {@link ProgressAggregator#setProgressSink} 调用）
+     */
+    void setSource(ProgressAggregator source) {
+        this.source = source;
+    }
+
+    /**
+     * 解除绑定，只在当前绑定的是该汇总器时生效
+     */
+    void clearSource(ProgressAggregator source) {
+        if (this.source == source) {
+            this.source = null;
+        }
+    }
+
+    /**
+     * 帧回调要应用的值：绑定汇总器时为它当前的总进度，否则为最后一次post的值
+     */
+    float readLatest() {
+        ProgressAggregator current = source;
+        return current != null ? current.getProgress() : Float.intBitsToFloat(latestBits.get());
+    }
+
+    /**
+     * View是否已添加到窗口并且可见（主线程调用）
+     */
+    void setActive(boolean active) {
+        if (this.active == active) {
+            return;
+        }
+        if (active && choreographer == null) {
+            choreographer = Choreographer.getInstance();
+        }
+        this.active = active;
+        if (active) {
+            // 不可见期间写入的最新值，在重新可见后的第一帧应用
+            scheduleIfNeeded();
+        }
+    }
+
+    private void scheduleIfNeeded() {
+        if (active && dirty.get() && frameScheduled.compareAndSet(false, true)) {
+            choreographer.postFrameCallback(frameCallback);
+        }
+    }
+
+    private void applyLatest() {
+        // 先清除标记再读取值：读取之后的写入会重新注册帧回调，不会丢失
+        frameScheduled.set(false);
+        if (!active) {
+            return;
+        }
+        if (dirty.getAndSet(false)) {
+            target.onSinkProgress(readLatest());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.progressbar;
+
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 进度动画：临界阻尼弹簧
+ *
+ * <p><b>为什么不用ValueAnimator？</b></p>
+ * <ul>
+ *   <li>下载时每秒会更新10~50次进度，每次都取消旧动画、创建新的ValueAnimator和插值器</li>
+ *   <li>新动画总是从速度0开始加速，进度条一直在"起步"，永远追不上目标</li>
+ * </ul>
+ *
+ * <p><b>实现原理：</b></p>
+ * <ol>
+ *   <li>进度值是挂在目标值上的临界阻尼弹簧：不会越过目标，也不会来回振荡</li>
+ *   <li>每帧用解析解推进一步：x(t) = (x0 + (v0 + ωx0)t)e^(-ωt)，x是当前值与目标值的差，
+ *       帧间隔不均匀时也是精确的</li>
+ *   <li>动画中修改目标值只改target，位置和速度保持不变，进度条平滑地转向新目标</li>
+ *   <li>整个动画只使用一个FrameCallback（就是本对象），运行期间不分配任何内存</li>
+ * </ol>
+ *
+ * <p>ω由动画时长计算：约在动画时长内走完99%的距离。</p>
+ *
+ * <p>所有方法都需要在主线程调用；在其他线程创建（例如后台inflate）是允许的，Choreographer在第一次注册帧回调时才获取。</p>
+ */
+final class ProgressSpring implements Choreographer.FrameCallback {
+
+    /**
+     * 动画值更新回调
+     */
+    interface Listener {
+        void onSpringUpdate(float value);
+    }
+
+    // (1 + ωt)e^(-ωt) = 1% 时 ωt ≈ 6.64
+    private static final float SETTLE_FACTOR = 6.64f;
+    // 小于这个距离和速度时认为动画结束
+    private static final float REST_DISTANCE = 0.0005f;
+    private static final float REST_VELOCITY = 0.001f;
+    // 帧间隔上限，卡顿后不会一步跳过整个动画
+    private static final float MAX_FRAME_SECONDS = 1f / 15f;
+    private static final float DEFAULT_FRAME_SECONDS = 1f / 60f;
+
+    // 第一次注册帧回调时才获取：View可能在没有Looper的线程中创建（例如AsyncLayoutInflater）
+    private Choreographer choreographer;
+    private final Listener listener;
+    private float value;
+    private float velocity;
+    private float target;
+    private float omega;
+    private boolean running;
+    private long lastFrameTimeNanos;
+
+    ProgressSpring(@NonNull Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 设置动画时长（毫秒），时长为0时 {@link #animateTo(float)} 直接跳到目标值
+     */
+    void setDuration(int durationMs) {
+        omega = omegaFor(durationMs);
+    }
+
+    /**
+     * 动画到目标值，动画进行中调用时保持当前速度转向新目标
+     */
+    void animateTo(float target) {
+        this.target = target;
+        // 不在主线程时（例如后台inflate时XML设置了animate）没有可用的帧回调，直接跳到目标值
+        if (omega <= 0f || Looper.myLooper() != Looper.getMainLooper()) {
+            jumpTo(target);
+            listener.onSpringUpdate(target);
+            return;
+        }
+        if (!running) {
+            running = true;
+            lastFrameTimeNanos = 0;
+            choreographer().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 停止动画并直接设置当前值，速度清零
+     */
+    void jumpTo(float value) {
+        cancel();
+        this.value = value;
+        this.target = value;
+        this.velocity = 0f;
+    }
+
+    /**
+     * 停止动画，当前值停在原处
+     */
+    void cancel() {
+        if (running) {
+            running = false;
+            choreographer.removeFrameCallback(this);
+        }
+        velocity = 0f;
+    }
+
+    /**
+     * 主线程的Choreographer（所有方法都在主线程调用）
+     */
+    private Choreographer choreographer() {
+        if (choreographer == null) {
+            choreographer = Choreographer.getInstance();
+        }
+        return choreographer;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    float getTarget() {
+        return target;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        float dt = lastFrameTimeNanos == 0
+                ? DEFAULT_FRAME_SECONDS
+                : Math.min(MAX_FRAME_SECONDS, (frameTimeNanos - lastFrameTimeNanos) / 1_000_000_000f);
+        lastFrameTimeNanos = frameTimeNanos;
+
+        float x = value - target;
+        float newX = displacement(x, velocity, omega, dt);
+        velocity = velocity(x, velocity, omega, dt);
+
+        if (Math.abs(newX) < REST_DISTANCE && Math.abs(velocity) < REST_VELOCITY) {
+            value = target;
+            velocity = 0f;
+            running = false;
+        } else {
+            value = target + newX;
+            choreographer().postFrameCallback(this);
+        }
+        listener.onSpringUpdate(value);
+    }
+
+    /**
+     * 动画时长（毫秒）对应的ω，时长为0时返回0
+     */
+    static float omegaFor(int durationMs) {
+        return durationMs > 0 ? SETTLE_FACTOR * 1000f / durationMs : 0f;
+    }
+
+    /**
+     * 经过t秒后与目标值的差：x(t) = (x0 + (v0 + ωx0)t)e^(-ωt)
+     */
+    static float displacement(float x, float v, float omega, float t) {
+        return (x + (v + omega * x) * t) * (float) Math.exp(-omega * t);
+    }
+
+    /**
+     * 经过t秒后的速度：v(t) = (v0 - ω(v0 + ωx0)t)e^(-ωt)
+     */
+    static float velocity(float x, float v, float omega, float t) {
+        return (v - omega * (v + omega * x) * t) * (float) Math.exp(-omega * t);
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.progressbar;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+/**
+ * 分段进度条
+ *
+ * <p><b>使用场景：</b></p>
+ * <ul>
+ *   <li>视频缓冲进度：1段，已播放 / 已缓冲 / 未缓冲，使用 {@link #setPlayback(float, float)}</li>
+ *   <li>分片上传：1~64段，每段是一个分片，使用 {@link #setSegmentProgress(int, float)}</li>
+ * </ul>
+ *
+ * <p><b>实现原理：</b></p>
+ * <ol>
+ *   <li>每段的起止位置、进度、缓冲进度都存放在预先分配的float数组中（位置是0-1的比例），不创建任何对象</li>
+ *   <li>onDraw()中一次循环画出所有段：轨道、缓冲部分、进度部分，画笔和RectF都预先创建</li>
+ *   <li>更新一段的进度是O(1)的：修改数组中的值，只请求重绘这一段所在的区域</li>
+ * </ol>
+ *
+ * <p><b>使用示例：</b></p>
+ * <pre>
+ * segmentedBar.setSegmentCount(8);            // 8个分片
+ * segmentedBar.setSegmentProgress(3, 0.5f);   // 第4个分片上传了50%
+ *
+ * segmentedBar.setSegmentCount(1);
+ * segmentedBar.setPlayback(0.3f, 0.6f);       // 播放到30%，缓冲到60%
+ * </pre>
+ *
+ * <p>所有方法都需要在主线程调用。</p>
+ */
+public class SegmentedProgressBar extends View {
+    /** 最多支持的段数 */
+    public static final int MAX_SEGMENTS = 64;
+
+    // 第i段占 [boundaries[i], boundaries[i + 1]]，比例0-1
+    private final float[] boundaries = new float[MAX_SEGMENTS + 1];
+    private final float[] progress = new float[MAX_SEGMENTS];
+    private final float[] buffered = new float[MAX_SEGMENTS];
+    private int segmentCount;
+
+    private final Paint trackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bufferedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint progressPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF segmentRect = new RectF();
+    private int trackHeight;
+    private float cornerRadius;
+    private float segmentGap;
+
+    public SegmentedProgressBar(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public SegmentedProgressBar(@NonNull Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SegmentedProgressBar(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        trackHeight = getResources().getDimensionPixelSize(R.dimen.progress_track_height);
+        cornerRadius = getResources().getDimension(R.dimen.progress_track_corner_radius);
+        segmentGap = getResources().getDimension(R.dimen.progress_segment_gap);
+
+        trackPaint.setStyle(Paint.Style.FILL);
+        trackPaint.setColor(ContextCompat.getColor(getContext(), R.color.progress_background_color));
+        bufferedPaint.setStyle(Paint.Style.FILL);
+        bufferedPaint.setColor(ContextCompat.getColor(getContext(), R.color.progress_buffered_color));
+        progressPaint.setStyle(Paint.Style.FILL);
+        progressPaint.setColor(ContextCompat.getColor(getContext(), R.color.progress_foreground_color));
+
+        setSegmentCount(1);
+    }
+
+    /**
+     * 设置段数，所有段等宽，所有进度清零
+     *
+     * @param count 段数，范围1-{@link #MAX_SEGMENTS}
+     */
+    public void setSegmentCount(int count) {
+        count = Math.max(1, Math.min(MAX_SEGMENTS, count));
+        segmentCount = count;
+        for (int i = 0; i <= count; i++) {
+            boundaries[i] = (float) i / count;
+        }
+        clearProgress(count);
+        invalidate();
+    }
+
+    /**
+     * 按权重设置段数和每段宽度（例如每个分片的字节数），所有进度清零
+     *
+     * @param weights 每段的权重，长度1-{@link #MAX_SEGMENTS}，权重小于0按0处理
+     */
+    public void setSegmentWeights(@NonNull float[] weights) {
+        int count = Math.max(1, Math.min(MAX_SEGMENTS, weights.length));
+        float total = 0f;
+        for (int i = 0; i < count; i++) {
+            total += Math.max(0f, weights[i]);
+        }
+        if (total <= 0f) {
+            setSegmentCount(count);
+            return;
+        }
+        segmentCount = count;
+        float sum = 0f;
+        boundaries[0] = 0f;
+        for (int i = 0; i < count; i++) {
+            sum += Math.max(0f, weights[i]);
+            boundaries[i + 1] = sum / total;
+        }
+        boundaries[count] = 1f;
+        clearProgress(count);
+        invalidate();
+    }
+
+    private void clearProgress(int count) {
+        for (int i = 0; i < count; i++) {
+            progress[i] = 0f;
+            buffered[i] = 0f;
+        }
+    }
+
+    /**
+     * 获取段数
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * 设置一段的进度（O(1)，只重绘这一段）
+     *
+     * @param index 段的下标
+     * @param value 进度值（0-1）
+     */
+    public void setSegmentProgress(int index, float value) {
+        if (index < 0 || index >= segmentCount) {
+            return;
+        }
+        value = clamp(value);
+        if (progress[index] != value) {
+            progress[index] = value;
+            invalidateSegment(index);
+        }
+    }
+
+    /**
+     * 设置一段的缓冲进度（O(1)，只重绘这一段）
+     *
+     * @param index 段的下标
+     * @param value 缓冲进度值（0-1）
+     */
+    public void setSegmentBuffered(int index, float value) {
+        if (index < 0 || index >= segmentCount) {
+            return;
+        }
+        value = clamp(value);
+        if (buffered[index] != value) {
+            buffered[index] = value;
+            invalidateSegment(index);
+        }
+    }
+
+    /**
+     * 获取一段的进度
+     */
+    public float getSegmentProgress(int index) {
+        return index >= 0 && index < segmentCount ? progress[index] : 0f;
+    }
+
+    /**
+     * 视频缓冲进度：设置第一段的已播放和已缓冲进度
+     *
+     * @param played 已播放（0-1）
+     * @param bufferedProgress 已缓冲（0-1）
+     */
+    public void setPlayback(float played, float bufferedProgress) {
+        setSegmentProgress(0, played);
+        setSegmentBuffered(0, bufferedProgress);
+    }
+
+    /**
+     * 总进度：各段进度按宽度加权求和（O(段数)）
+     */
+    public float getOverallProgress() {
+        float sum = 0f;
+        for (int i = 0; i < segmentCount; i++) {
+            sum += progress[i] * (boundaries[i + 1] - boundaries[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * 设置颜色
+     */
+    public void setColors(@ColorInt int trackColor, @ColorInt int bufferedColor, @ColorInt int progressColor) {
+        trackPaint.setColor(trackColor);
+        bufferedPaint.setColor(bufferedColor);
+        progressPaint.setColor(progressColor);
+        invalidate();
+    }
+
+    /**
+     * 设置段之间的间隔（像素）
+     */
+    public void setSegmentGap(float gap) {
+        segmentGap = Math.max(0f, gap);
+        invalidate();
+    }
+
+    private static float clamp(float value) {
+        return Math.max(0f, Math.min(1f, value));
+    }
+
+    /**
+     * 只请求重绘一段所在的区域（下一帧统一处理，同一帧内多次更新只重绘一次）
+     */
+    private void invalidateSegment(int index) {
+        computeSegmentRect(index);
+        postInvalidateOnAnimation((int) Math.floor(segmentRect.left), (int) Math.floor(segmentRect.top),
+                (int) Math.ceil(segmentRect.right), (int) Math.ceil(segmentRect.bottom));
+    }
+
+    /**
+     * 计算第index段轨道的区域，结果放在segmentRect中
+     */
+    private void computeSegmentRect(int index) {
+        float left = getPaddingLeft();
+        float width = getWidth() - getPaddingLeft() - getPaddingRight();
+        int contentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        float height = Math.min(trackHeight, Math.max(0, contentHeight));
+        float top = getPaddingTop() + (contentHeight - height) / 2f;
+        float halfGap = segmentGap / 2f;
+        float segmentLeft = left + boundaries[index] * width + (index > 0 ? halfGap : 0f);
+        float segmentRight = left + boundaries[index + 1] * width - (index < segmentCount - 1 ? halfGap : 0f);
+        segmentRect.set(segmentLeft, top, Math.max(segmentLeft, segmentRight), top + height);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = resolveSize(trackHeight + getPaddingTop() + getPaddingBottom(), heightMeasureSpec);
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        for (int i = 0; i < segmentCount; i++) {
+            computeSegmentRect(i);
+            float left = segmentRect.left;
+            float segmentWidth = segmentRect.width();
+            if (segmentWidth <= 0f) {
+                continue;
+            }
+            // 轨道
+            canvas.drawRoundRect(segmentRect, cornerRadius, cornerRadius, trackPaint);
+            // 缓冲部分（比进度多出的部分才可见）
+            if (buffered[i] > progress[i]) {
+                segmentRect.right = left + segmentWidth * buffered[i];
+                canvas.drawRoundRect(segmentRect, cornerRadius, cornerRadius, bufferedPaint);
+            }
+            // 进度部分
+            if (progress[i] > 0f) {
+                segmentRect.right = left + segmentWidth * progress[i];
+                canvas.drawRoundRect(segmentRect, cornerRadius, cornerRadius, progressPaint);
+            }
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(android.widget.ProgressBar.class.getName());
+        int percent = AccessibilityUpdateScheduler.toPercent(getOverallProgress());
+        info.setRangeInfo(AccessibilityNodeInfo.RangeInfo.obtain(
+                AccessibilityNodeInfo.RangeInfo.RANGE_TYPE_INT, 0f, 100f, percent));
+        if (getContentDescription() == null) {
+            info.setContentDescription(AccessibilityUpdateScheduler.getDescription("分段进度条", percent));
+        }
+    }
+}
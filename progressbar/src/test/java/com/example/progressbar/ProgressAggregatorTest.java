@@ -0,0 +1,171 @@
+package com.example.progressbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * ProgressAggregator 的单元测试：完成量限制、总进度、速度（EWMA）和剩余时间
+ */
+public class ProgressAggregatorTest {
+
+    private static final long MILLIS = 1_000_000L;
+    // 起始时间放在很远的将来，add()/getThroughput() 按真实时间的采样都会被跳过，只有测试里手动调用的采样生效
+    private static final long START = System.nanoTime() + 1_000_000 * MILLIS;
+
+    @Test
+    public void add_clampsToTaskWeight() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{100, 50});
+        aggregator.add(0, 150);
+        assertEquals(100, aggregator.getDone());
+        aggregator.add(0, -500);
+        assertEquals(0, aggregator.getDone());
+        aggregator.add(1, 20);
+        aggregator.add(1, 20);
+        assertEquals(40, aggregator.getDone());
+        assertEquals(0.8f, aggregator.getTaskProgress(1), 1e-6f);
+    }
+
+    @Test
+    public void set_clampsToTaskWeight() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{100, 50});
+        aggregator.set(1, 80);
+        assertEquals(50, aggregator.getDone());
+        aggregator.set(1, -3);
+        assertEquals(0, aggregator.getDone());
+        aggregator.setFraction(0, 2f);
+        assertEquals(100, aggregator.getDone());
+        aggregator.setFraction(0, 0.25f);
+        assertEquals(25, aggregator.getDone());
+    }
+
+    @Test
+    public void progress_isWeightedByTask() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{300, 100});
+        aggregator.complete(1);
+        assertEquals(0.25f, aggregator.getProgress(), 1e-6f);
+        assertEquals(1f, aggregator.getTaskProgress(1), 0f);
+        aggregator.add(0, 150);
+        assertEquals(0.625f, aggregator.getProgress(), 1e-6f);
+        assertEquals(400, aggregator.getTotal());
+    }
+
+    @Test
+    public void zeroWeightTasks_reportNoProgress() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{0, -10});
+        aggregator.add(0, 10);
+        aggregator.complete(1);
+        assertEquals(0, aggregator.getTotal());
+        assertEquals(0f, aggregator.getProgress(), 0f);
+        assertEquals(0f, aggregator.getTaskProgress(0), 0f);
+        assertEquals(0f, aggregator.getTaskProgress(1), 0f);
+        // 没有剩余量，视为已完成
+        assertEquals(0, aggregator.getEtaMillis());
+    }
+
+    @Test
+    public void eta_unknownBeforeFirstSample() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{1000}, START);
+        aggregator.add(0, 100);
+        assertEquals(0.0, aggregator.getThroughput(), 0.0);
+        assertEquals(-1, aggregator.getEtaMillis());
+    }
+
+    @Test
+    public void eta_zeroWhenComplete() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{1000}, START);
+        aggregator.complete(0);
+        assertEquals(0, aggregator.getEtaMillis());
+    }
+
+    @Test
+    public void throughput_firstSampleIsInstantRate() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{10_000}, START);
+        aggregator.add(0, 100);
+        aggregator.sample(START + 500 * MILLIS);
+        assertEquals(200.0, aggregator.getThroughput(), 1e-6);
+        // 剩余9900，速度200/秒
+        assertEquals(49_500, aggregator.getEtaMillis());
+    }
+
+    @Test
+    public void throughput_smoothsWithTimeWeightedEwma() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{10_000}, START);
+        aggregator.add(0, 100);
+        aggregator.sample(START + 500 * MILLIS);
+        aggregator.add(0, 300);
+        aggregator.sample(START + 1000 * MILLIS);
+        // 瞬时速度600/秒，按0.5秒的间隔计算权重
+        double alpha = 1.0 - Math.exp(-0.5 / 3.0);
+        double expected = 200.0 + alpha * (600.0 - 200.0);
+        assertEquals(expected, aggregator.getThroughput(), 1e-6);
+        assertEquals((long) (9600 / expected * 1000), aggregator.getEtaMillis());
+    }
+
+    @Test
+    public void throughput_ignoresSamplesWithinInterval() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{10_000}, START);
+        aggregator.add(0, 100);
+        aggregator.sample(START + 500 * MILLIS);
+        aggregator.add(0, 1000);
+        aggregator.sample(START + 600 * MILLIS);
+        assertEquals(200.0, aggregator.getThroughput(), 1e-6);
+    }
+
+    @Test
+    public void throughput_decaysWhenStalled() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{10_000}, START);
+        aggregator.add(0, 100);
+        aggregator.sample(START + 500 * MILLIS);
+        aggregator.sample(START + 3500 * MILLIS);
+        // 3秒没有进度：速度衰减到约1/e
+        assertEquals(200.0 * Math.exp(-1.0), aggregator.getThroughput(), 1e-6);
+    }
+
+    @Test
+    public void sink_readsLatestTotalRegardlessOfReportOrder() throws InterruptedException {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{4000, 4000});
+        ProgressSink sink = new ProgressSink(value -> { });
+        aggregator.setProgressSink(sink);
+
+        // 两个传输线程交替上报，各自算出的总量到达的先后顺序不确定
+        Thread first = new Thread(() -> {
+            for (int i = 0; i < 4000; i++) {
+                aggregator.add(0, 1);
+            }
+        });
+        Thread second = new Thread(() -> {
+            for (int i = 0; i < 4000; i++) {
+                aggregator.add(1, 1);
+            }
+        });
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+
+        assertEquals(1f, sink.readLatest(), 0f);
+    }
+
+    @Test
+    public void sink_ignoresStalePostWhileBound() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{1000});
+        ProgressSink sink = new ProgressSink(value -> { });
+        aggregator.setProgressSink(sink);
+        aggregator.add(0, 1000);
+        // 上报晚到的旧值不会让进度回退
+        sink.post(0.9f);
+        assertEquals(1f, sink.readLatest(), 0f);
+    }
+
+    @Test
+    public void sink_unbound_usesPostedValue() {
+        ProgressAggregator aggregator = new ProgressAggregator(new long[]{1000});
+        ProgressSink sink = new ProgressSink(value -> { });
+        aggregator.setProgressSink(sink);
+        aggregator.setProgressSink(null);
+        aggregator.add(0, 500);
+        sink.post(0.25f);
+        assertEquals(0.25f, sink.readLatest(), 0f);
+    }
+}
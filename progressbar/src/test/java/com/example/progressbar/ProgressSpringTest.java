@@ -0,0 +1,86 @@
+package com.example.progressbar;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ProgressSpring 解析解的单元测试（只测试纯计算部分，不依赖Choreographer）
+ */
+public class ProgressSpringTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void omegaFor_zeroDuration_returnsZero() {
+        assertEquals(0f, ProgressSpring.omegaFor(0), 0f);
+        assertEquals(0f, ProgressSpring.omegaFor(-100), 0f);
+    }
+
+    @Test
+    public void displacement_afterDuration_coversNinetyNinePercent() {
+        int durationMs = 300;
+        float omega = ProgressSpring.omegaFor(durationMs);
+        float x = ProgressSpring.displacement(-1f, 0f, omega, durationMs / 1000f);
+        // 从静止开始，动画时长结束时剩下约1%的距离
+        assertEquals(-0.01f, x, 0.001f);
+    }
+
+    @Test
+    public void displacement_zeroTime_keepsPosition() {
+        float omega = ProgressSpring.omegaFor(300);
+        assertEquals(-0.5f, ProgressSpring.displacement(-0.5f, 2f, omega, 0f), EPSILON);
+        assertEquals(2f, ProgressSpring.velocity(-0.5f, 2f, omega, 0f), EPSILON);
+    }
+
+    @Test
+    public void step_isIndependentOfFrameSplit() {
+        float omega = ProgressSpring.omegaFor(300);
+        float x0 = -0.8f;
+        float v0 = 0.5f;
+        float t = 0.05f;
+
+        float fullX = ProgressSpring.displacement(x0, v0, omega, t);
+        float fullV = ProgressSpring.velocity(x0, v0, omega, t);
+
+        // 帧间隔不均匀时也是精确的：两个半步等于一个整步
+        float halfX = ProgressSpring.displacement(x0, v0, omega, t / 2);
+        float halfV = ProgressSpring.velocity(x0, v0, omega, t / 2);
+        float splitX = ProgressSpring.displacement(halfX, halfV, omega, t / 2);
+        float splitV = ProgressSpring.velocity(halfX, halfV, omega, t / 2);
+
+        assertEquals(fullX, splitX, EPSILON);
+        assertEquals(fullV, splitV, 1e-4f);
+    }
+
+    @Test
+    public void step_fromRest_neverOvershootsTarget() {
+        float omega = ProgressSpring.omegaFor(300);
+        float x = -1f;
+        float v = 0f;
+        float previous = x;
+        for (int frame = 0; frame < 120; frame++) {
+            float dt = 1f / 60f;
+            float newX = ProgressSpring.displacement(x, v, omega, dt);
+            v = ProgressSpring.velocity(x, v, omega, dt);
+            x = newX;
+            // 临界阻尼：单调接近目标，不会越过
+            assertTrue("frame " + frame + " overshoot: " + x, x <= 0f);
+            assertTrue("frame " + frame + " moved away: " + x, x >= previous);
+            previous = x;
+        }
+        assertEquals(0f, x, 0.0005f);
+        assertEquals(0f, v, 0.001f);
+    }
+
+    @Test
+    public void velocity_decaysToZero() {
+        float omega = ProgressSpring.omegaFor(300);
+        // 动画进行中转向新目标：保持速度，之后速度逐渐衰减
+        float v1 = ProgressSpring.velocity(-0.2f, 3f, omega, 0.3f);
+        float v2 = ProgressSpring.velocity(-0.2f, 3f, omega, 1f);
+        assertTrue(Math.abs(v2) < Math.abs(v1));
+        assertEquals(0f, v2, 0.01f);
+    }
+}
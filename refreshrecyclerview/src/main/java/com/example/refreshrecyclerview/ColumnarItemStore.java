@@ -0,0 +1,263 @@
+package com.example.refreshrecyclerview;
+
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * 按列存储的列表数据
+ *
+ * 每一列是一个基本类型数组（int/long/引用），每行只占几个字节，不需要为每一行创建对象。
+ * 数据按页追加（append-only），和上拉加载更多的分页方式一致；
+ * 显示文字在绑定时才格式化（TextFormatter），并写入ViewHolder自己的字符缓冲区，绑定过程不分配内存。
+ *
+ * 通过 {@link #attachAdapter(RecyclerView.Adapter)} 关联Adapter后，追加、更新、清空都会发出对应的局部通知，
+ * RefreshRecyclerView 的包装Adapter会把这些通知转发给列表（包括加载更多的底部视图）。
+ *
+ * 列是普通数组，没有同步，所有方法都需要在主线程调用。
+ */
+public class ColumnarItemStore {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * 行文字格式化接口，只在绑定时调用
+     */
+    public interface TextFormatter {
+        /**
+         * 把指定行的文字追加到 out 中（out 已清空）
+         */
+        void format(@NonNull ColumnarItemStore store, int row, @NonNull StringBuilder out);
+    }
+
+    /**
+     * 页数据写入接口
+     */
+    public interface PageWriter {
+        /**
+         * 写入一行数据
+         * @param store 数据存储
+         * @param row 行号（全局位置）
+         * @param indexInPage 在本页中的序号
+         */
+        void write(@NonNull ColumnarItemStore store, int row, int indexInPage);
+    }
+
+    /**
+     * 每个ViewHolder持有一个，TextView会直接引用其中的字符数组，所以不能在ViewHolder之间共享
+     */
+    public static final class TextBuffer {
+        private char[] mChars = new char[32];
+
+        char[] obtain(int length) {
+            if (mChars.length < length) {
+                mChars = new char[Math.max(length, mChars.length * 2)];
+            }
+            return mChars;
+        }
+    }
+
+    private final int[][] mIntColumns;
+    private final long[][] mLongColumns;
+    private final Object[][] mRefColumns;
+    private int mSize;
+    private int mCapacity;
+
+    // 每一页的起始行号
+    private int[] mPageStarts = new int[8];
+    private int mPageCount;
+
+    private TextFormatter mTextFormatter;
+    private final StringBuilder mFormatBuilder = new StringBuilder(32);
+    private RecyclerView.Adapter<?> mAdapter;
+
+    /**
+     * @param intColumns int列数量
+     * @param longColumns long列数量
+     * @param refColumns 引用列数量
+     */
+    public ColumnarItemStore(int intColumns, int longColumns, int refColumns) {
+        mCapacity = DEFAULT_CAPACITY;
+        mIntColumns = new int[intColumns][mCapacity];
+        mLongColumns = new long[longColumns][mCapacity];
+        mRefColumns = new Object[refColumns][mCapacity];
+    }
+
+    /**
+     * 设置文字格式化器
+     */
+    public void setTextFormatter(@Nullable TextFormatter formatter) {
+        mTextFormatter = formatter;
+    }
+
+    /**
+     * 关联Adapter，数据变化时自动发出局部通知
+     */
+    public void attachAdapter(@Nullable RecyclerView.Adapter<?> adapter) {
+        mAdapter = adapter;
+    }
+
+    /**
+     * 数据行数，Adapter 的 getItemCount() 直接返回该值
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * 追加一页数据
+     * @param count 本页行数
+     * @param writer 写入每一行数据
+     * @return 本页第一行的行号
+     */
+    public int appendPage(int count, @NonNull PageWriter writer) {
+        int start = mSize;
+        ensureCapacity(start + count);
+        if (mPageCount == mPageStarts.length) {
+            mPageStarts = Arrays.copyOf(mPageStarts, mPageCount * 2);
+        }
+        mPageStarts[mPageCount++] = start;
+        for (int i = 0; i < count; i++) {
+            writer.write(this, start + i, i);
+        }
+        mSize = start + count;
+        if (mAdapter != null && count > 0) {
+            mAdapter.notifyItemRangeInserted(start, count);
+        }
+        return start;
+    }
+
+    /**
+     * 清空所有数据（下拉刷新时调用），保留已分配的数组
+     */
+    public void clear() {
+        int oldSize = mSize;
+        for (Object[] column : mRefColumns) {
+            Arrays.fill(column, 0, oldSize, null);
+        }
+        mSize = 0;
+        mPageCount = 0;
+        if (mAdapter != null && oldSize > 0) {
+            mAdapter.notifyItemRangeRemoved(0, oldSize);
+        }
+    }
+
+    /**
+     * 某一行的数据已修改，发出局部刷新通知
+     */
+    public void notifyRowChanged(int row) {
+        if (mAdapter != null) {
+            mAdapter.notifyItemChanged(row);
+        }
+    }
+
+    public int getPageCount() {
+        return mPageCount;
+    }
+
+    /**
+     * 获取页的第一行行号
+     */
+    public int getPageStart(int page) {
+        return mPageStarts[page];
+    }
+
+    /**
+     * 获取行所在的页（从0开始），二分查找
+     */
+    public int getPageOfRow(int row) {
+        int index = Arrays.binarySearch(mPageStarts, 0, mPageCount, row);
+        if (index >= 0) {
+            // 空页和下一页的起始行号相同，取最后一个
+            while (index + 1 < mPageCount && mPageStarts[index + 1] == row) {
+                index++;
+            }
+            return index;
+        }
+        return -index - 2;
+    }
+
+    public int getInt(int column, int row) {
+        return mIntColumns[column][row];
+    }
+
+    public void setInt(int column, int row, int value) {
+        mIntColumns[column][row] = value;
+    }
+
+    public long getLong(int column, int row) {
+        return mLongColumns[column][row];
+    }
+
+    public void setLong(int column, int row, long value) {
+        mLongColumns[column][row] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getRef(int column, int row) {
+        return (T) mRefColumns[column][row];
+    }
+
+    public void setRef(int column, int row, @Nullable Object value) {
+        mRefColumns[column][row] = value;
+    }
+
+    /**
+     * 把指定行的文字绑定到TextView，不分配内存
+     * @param textView 目标TextView
+     * @param buffer ViewHolder自己的字符缓冲区
+     * @param row 行号
+     */
+    public void bindText(@NonNull TextView textView, @NonNull TextBuffer buffer, int row) {
+        StringBuilder builder = formatRow(row);
+        int length = builder.length();
+        char[] chars = buffer.obtain(length);
+        builder.getChars(0, length, chars, 0);
+        textView.setText(chars, 0, length);
+    }
+
+    /**
+     * 获取指定行的文字（会创建新字符串，绑定列表时请使用 {@link #bindText}）
+     * 需要在主线程调用；返回的字符串是不可变的快照，可以交给后台线程使用（例如预计算文字布局）
+     */
+    @NonNull
+    public String getText(int row) {
+        StringBuilder builder = new StringBuilder(32);
+        if (mTextFormatter != null) {
+            mTextFormatter.format(this, row, builder);
+        }
+        return builder.toString();
+    }
+
+    private StringBuilder formatRow(int row) {
+        mFormatBuilder.setLength(0);
+        if (mTextFormatter != null) {
+            mTextFormatter.format(this, row, mFormatBuilder);
+        }
+        return mFormatBuilder;
+    }
+
+    /**
+     * 扩容所有列，按1.5倍增长
+     */
+    private void ensureCapacity(int required) {
+        if (required <= mCapacity) {
+            return;
+        }
+        int newCapacity = Math.max(required, mCapacity + (mCapacity >> 1));
+        for (int i = 0; i < mIntColumns.length; i++) {
+            mIntColumns[i] = Arrays.copyOf(mIntColumns[i], newCapacity);
+        }
+        for (int i = 0; i < mLongColumns.length; i++) {
+            mLongColumns[i] = Arrays.copyOf(mLongColumns[i], newCapacity);
+        }
+        for (int i = 0; i < mRefColumns.length; i++) {
+            mRefColumns[i] = Arrays.copyOf(mRefColumns[i], newCapacity);
+        }
+        mCapacity = newCapacity;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.refreshrecyclerview;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+/**
+ * 默认的空数据/加载失败状态视图实现
+ */
+public class DefaultStateView implements StateView {
+    
+    private LinearLayout mStateView;
+    private TextView mMessageView;
+    private TextView mRetryView;
+    private Context mContext;
+    
+    public DefaultStateView(Context context) {
+        mContext = context;
+        init();
+    }
+    
+    private void init() {
+        mStateView = new LinearLayout(mContext);
+        mStateView.setOrientation(LinearLayout.VERTICAL);
+        mStateView.setGravity(Gravity.CENTER);
+        mStateView.setLayoutParams(new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT
+        ));
+        
+        mMessageView = new TextView(mContext);
+        mMessageView.setText("暂无数据");
+        mMessageView.setTextSize(16);
+        mMessageView.setTextColor(0xFF999999);
+        mMessageView.setGravity(Gravity.CENTER);
+        mMessageView.setLayoutParams(new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+        ));
+        
+        mRetryView = new TextView(mContext);
+        mRetryView.setText("点击重试");
+        mRetryView.setTextSize(14);
+        mRetryView.setTextColor(0xFF2196F3);
+        mRetryView.setGravity(Gravity.CENTER);
+        mRetryView.setPadding(40, 24, 40, 24);
+        mRetryView.setVisibility(View.GONE);
+        mRetryView.setLayoutParams(new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+        ));
+        
+        mStateView.addView(mMessageView);
+        mStateView.addView(mRetryView);
+    }
+    
+    @Override
+    public View getStateView() {
+        return mStateView;
+    }
+    
+    @Override
+    public View getRetryView() {
+        return mRetryView;
+    }
+    
+    @Override
+    public void onEmpty() {
+        mMessageView.setText("暂无数据");
+        mRetryView.setVisibility(View.GONE);
+    }
+    
+    @Override
+    public void onError(CharSequence message) {
+        mMessageView.setText(message != null ? message : "加载失败");
+        mRetryView.setVisibility(View.VISIBLE);
+    }
+}
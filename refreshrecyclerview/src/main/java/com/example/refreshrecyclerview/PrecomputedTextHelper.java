@@ -0,0 +1,290 @@
+package com.example.refreshrecyclerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.logger.Tracer;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 列表文字预计算工具
+ *
+ * 数据到达时在主线程读取每一行的文字（不可变的快照），再在后台线程用 PrecomputedTextCompat 预先测量，结果按行号保存，
+ * onBindViewHolder 时直接设置预计算结果，TextView.onMeasure 不再需要重新测量文字；
+ * 还没计算完成的行返回 false，由调用方走普通的 setText 流程。
+ *
+ * 通过监听Adapter的数据变化（分页追加、局部更新、删除、整体刷新）自动维护结果，
+ * 非追加的结构变化会让进行中的计算失效并重新提交缺失的行；
+ * 局部更新只让被修改的行失效（每行一个版本号），只重新提交这些行，其他行正在进行的计算不受影响。
+ *
+ * 所有方法（包括 TextSource.getText）都在主线程调用，后台线程只接触文字快照和测量参数，不读取数据源。
+ */
+public class PrecomputedTextHelper {
+
+    private static final int BATCH_SIZE = 20; // 每个后台任务计算的行数
+
+    private static ExecutorService sDefaultExecutor;
+
+    /**
+     * 行文字来源，在主线程调用
+     */
+    public interface TextSource {
+        /**
+         * @return 该行文字，会交给后台线程测量，需要是不可变的（例如String），之后不能再修改
+         */
+        @NonNull
+        CharSequence getText(int row);
+    }
+
+    private final TextSource mTextSource;
+    private final Executor mExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private RecyclerView.Adapter<?> mAdapter;
+    private PrecomputedTextCompat.Params mParams; // 行TextView的文字参数
+    private PrecomputedTextCompat[] mResults = new PrecomputedTextCompat[64];
+    // 每行的版本号，行被修改时更新，计算结果只在提交时的版本号仍然一致时保存
+    private int[] mRowStamps = new int[64];
+    private int mNextStamp;
+    private int mSize; // 与Adapter数据数量保持一致
+    private volatile int mGeneration; // 结构变化时递增，丢弃过期的计算结果（后台线程只读）
+
+    private final RecyclerView.AdapterDataObserver mDataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            mGeneration++;
+            mSize = mAdapter != null ? mAdapter.getItemCount() : 0;
+            ensureCapacity(mSize);
+            Arrays.fill(mResults, null);
+            submitMissing();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            // 只让修改的行失效，不影响其他行正在进行的计算（例如频繁更新传输进度的行）
+            int end = Math.min(positionStart + itemCount, mSize);
+            if (positionStart >= end) {
+                return;
+            }
+            int stamp = ++mNextStamp;
+            Arrays.fill(mRowStamps, positionStart, end, stamp);
+            Arrays.fill(mResults, positionStart, end, null);
+            submitRange(positionStart, end - positionStart);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            boolean append = positionStart == mSize;
+            ensureCapacity(mSize + itemCount);
+            if (!append) {
+                mGeneration++;
+                System.arraycopy(mResults, positionStart, mResults, positionStart + itemCount, mSize - positionStart);
+            }
+            Arrays.fill(mResults, positionStart, positionStart + itemCount, null);
+            mSize += itemCount;
+            if (append) {
+                // 分页追加：只提交新的一页，不影响正在进行的计算
+                submitRange(positionStart, itemCount);
+            } else {
+                submitMissing();
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mGeneration++;
+            int tail = mSize - positionStart - itemCount;
+            if (tail > 0) {
+                System.arraycopy(mResults, positionStart + itemCount, mResults, positionStart, tail);
+            }
+            Arrays.fill(mResults, mSize - itemCount, mSize, null);
+            mSize -= itemCount;
+            submitMissing();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            onChanged();
+        }
+    };
+
+    public PrecomputedTextHelper(@NonNull TextSource textSource) {
+        this(textSource, getDefaultExecutor());
+    }
+
+    public PrecomputedTextHelper(@NonNull TextSource textSource, @NonNull Executor executor) {
+        mTextSource = textSource;
+        mExecutor = executor;
+    }
+
+    /**
+     * 关联Adapter，监听数据变化
+     */
+    public void attach(@NonNull RecyclerView.Adapter<?> adapter) {
+        detach();
+        mAdapter = adapter;
+        mAdapter.registerAdapterDataObserver(mDataObserver);
+        mDataObserver.onChanged();
+    }
+
+    /**
+     * 取消关联，丢弃所有结果
+     */
+    public void detach() {
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(mDataObserver);
+            mAdapter = null;
+        }
+        mGeneration++;
+        Arrays.fill(mResults, null);
+        mSize = 0;
+    }
+
+    /**
+     * 是否已经设置了文字参数
+     */
+    public boolean hasTextParams() {
+        return mParams != null;
+    }
+
+    /**
+     * 使用行TextView的文字参数（字号、字体、断行策略等），一般在第一次 onCreateViewHolder 时调用
+     * 参数变化时丢弃所有结果并重新计算
+     */
+    public void setTextParams(@NonNull TextView textView) {
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(textView);
+        if (params.equals(mParams)) {
+            return;
+        }
+        mParams = params;
+        mGeneration++;
+        Arrays.fill(mResults, null);
+        submitMissing();
+    }
+
+    /**
+     * 设置预计算的文字
+     * @return 该行已计算完成并设置成功返回true；返回false时调用方需要走普通的setText流程
+     */
+    public boolean bindText(@NonNull TextView textView, int row) {
+        if (row < 0 || row >= mSize) {
+            return false;
+        }
+        PrecomputedTextCompat result = mResults[row];
+        if (result == null) {
+            return false;
+        }
+        try {
+            TextViewCompat.setPrecomputedText(textView, result);
+            return true;
+        } catch (IllegalArgumentException e) {
+            // TextView的文字参数已经改变（例如修改了字号），按新参数重新计算
+            setTextParams(textView);
+            return false;
+        }
+    }
+
+    /**
+     * 重新提交所有没有结果的行
+     */
+    private void submitMissing() {
+        int row = 0;
+        while (row < mSize) {
+            if (mResults[row] != null) {
+                row++;
+                continue;
+            }
+            int start = row;
+            while (row < mSize && row - start < BATCH_SIZE && mResults[row] == null) {
+                row++;
+            }
+            submitRange(start, row - start);
+        }
+    }
+
+    /**
+     * 提交一段行到后台计算，按 BATCH_SIZE 拆分
+     */
+    private void submitRange(int start, int count) {
+        final PrecomputedTextCompat.Params params = mParams;
+        if (params == null || count <= 0) {
+            return;
+        }
+        for (int offset = 0; offset < count; offset += BATCH_SIZE) {
+            final int batchStart = start + offset;
+            final int batchCount = Math.min(BATCH_SIZE, count - offset);
+            final int generation = mGeneration;
+            // 在主线程读取文字快照，数据源（例如ColumnarItemStore）不需要支持跨线程读取
+            final CharSequence[] texts = new CharSequence[batchCount];
+            final int[] stamps = Arrays.copyOfRange(mRowStamps, batchStart, batchStart + batchCount);
+            for (int i = 0; i < batchCount; i++) {
+                texts[i] = mTextSource.getText(batchStart + i);
+            }
+            mExecutor.execute(() -> {
+                PrecomputedTextCompat[] batch = new PrecomputedTextCompat[batchCount];
+                Tracer.begin("PrecomputedTextHelper#batch");
+                try {
+                    for (int i = 0; i < batchCount; i++) {
+                        if (generation != mGeneration) {
+                            return; // 数据已变化，放弃剩余的计算
+                        }
+                        batch[i] = PrecomputedTextCompat.create(texts[i], params);
+                    }
+                } finally {
+                    Tracer.end();
+                }
+                mMainHandler.post(() -> deliver(generation, params, batchStart, stamps, batch));
+            });
+        }
+    }
+
+    /**
+     * 在主线程保存计算结果，提交后被修改过的行（版本号不一致）丢弃，等待重新提交的结果
+     */
+    private void deliver(int generation, PrecomputedTextCompat.Params params,
+                         int start, int[] stamps, PrecomputedTextCompat[] batch) {
+        if (generation != mGeneration || params != mParams) {
+            return;
+        }
+        int end = Math.min(start + batch.length, mSize);
+        for (int row = start; row < end; row++) {
+            if (mRowStamps[row] == stamps[row - start]) {
+                mResults[row] = batch[row - start];
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > mResults.length) {
+            int capacity = Math.max(required, mResults.length * 2);
+            mResults = Arrays.copyOf(mResults, capacity);
+            mRowStamps = Arrays.copyOf(mRowStamps, capacity);
+        }
+    }
+
+    @NonNull
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (sDefaultExecutor == null) {
+            sDefaultExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }, "PrecomputedText");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sDefaultExecutor;
+    }
+}
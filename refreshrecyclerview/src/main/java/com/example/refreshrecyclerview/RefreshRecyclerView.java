@@ -3,6 +3,8 @@ package com.example.refreshrecyclerview;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -18,6 +20,7 @@ import androidx.core.view.NestedScrollingChildHelper;
 import androidx.core.view.NestedScrollingParent2;
 import androidx.core.view.NestedScrollingParentHelper;
 import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityViewCommand;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -37,10 +40,16 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
     
     private int mCurrentState = STATE_IDLE;
     
+    // 内容状态
+    public static final int VIEW_STATE_CONTENT = 0; // 显示列表内容
+    public static final int VIEW_STATE_EMPTY = 1;   // 空数据
+    public static final int VIEW_STATE_ERROR = 2;   // 加载失败，点击重试
+    
     // 下拉刷新相关
     private RefreshHeader mRefreshHeader;
     private boolean mEnablePullRefresh = true; // 是否启用下拉刷新
     private OnRefreshListener mOnRefreshListener;
+    private int mRefreshGeneration = 0; // 每次开始刷新（包括重试）时递增，用于丢弃过期请求的结果
     private int mHeaderHeight; // 头部高度
     private int mCurrentHeaderOffset; // 当前头部偏移量
     private int mTouchSlop; // 触摸滑动阈值
@@ -53,6 +62,45 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
     private OnLoadMoreListener mOnLoadMoreListener;
     private boolean mIsLoadingMore = false; // 是否正在加载更多
     private boolean mHasMoreData = true; // 是否还有更多数据
+    private static final int LOAD_MORE_PREFETCH = 3; // 距离底部还剩几个item时触发加载更多
+    private int mLoadMoreThreshold = Integer.MAX_VALUE; // 触发加载更多的位置，布局完成时预先计算
+    private boolean mLoadMoreCheckPending = false; // 是否已经post了一次加载更多检查
+    private static final long LOAD_MORE_THROTTLE_MS = 300; // 一页加载完成后，至少间隔多久才检查下一页
+    private long mLastLoadMoreFinishTime = -LOAD_MORE_THROTTLE_MS; // 上一页加载完成的时间（uptimeMillis）
+    private final Runnable mLoadMoreCheckRunnable = () -> {
+        mLoadMoreCheckPending = false;
+        checkLoadMore();
+    };
+    
+    // 空数据/加载失败状态视图相关（不添加到Adapter，只通过Canvas绘制）
+    private StateView mStateView;
+    private int mViewState = VIEW_STATE_CONTENT;
+    private boolean mStateViewDirty = true; // 状态或尺寸改变后需要重新测量和布局
+    private float mStateDownX;
+    private float mStateDownY;
+    private boolean mStateDownOnRetry; // 按下位置在重试按钮上
+    private final Rect mRetryBounds = new Rect();
+    private int mRetryActionId = View.NO_ID; // 加载失败状态下的无障碍"重试"操作
+    private final AccessibilityViewCommand mRetryCommand = (view, arguments) -> {
+        retry();
+        return true;
+    };
+    private final AdapterDataObserver mStateDataObserver = new AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            hideStateViewIfHasData();
+        }
+        
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            hideStateViewIfHasData();
+        }
+        
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            showEmptyStateIfNoData();
+        }
+    };
     
     // NestedScrolling相关
     private NestedScrollingChildHelper mChildHelper;
@@ -90,12 +138,31 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         // 延迟初始化头部和底部视图，避免在构造函数中出错
         // mRefreshHeader 和 mLoadMoreFooter 将在首次使用时初始化
         
-        // 添加滚动监听
+        // 添加滚动监听：只在滚动停止或最后一个item越过预先计算的阈值时检查加载更多，
+        // 避免每次onScrolled都去查询LayoutManager和Adapter
         mInternalScrollListener = new OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                super.onScrollStateChanged(recyclerView, newState);
+                if (newState == SCROLL_STATE_IDLE) {
+                    scheduleLoadMoreCheck();
+                }
+            }
+            
             @Override
             public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
                 super.onScrolled(recyclerView, dx, dy);
-                checkLoadMore();
+                if (dy <= 0 || !canLoadMore()) {
+                    return;
+                }
+                int childCount = getChildCount();
+                if (childCount == 0) {
+                    return;
+                }
+                int lastPosition = getChildAdapterPosition(getChildAt(childCount - 1));
+                if (lastPosition >= mLoadMoreThreshold) {
+                    checkLoadMore();
+                }
             }
         };
         addOnScrollListener(mInternalScrollListener);
@@ -155,6 +222,15 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
         super.onLayout(changed, l, t, r, b);
         // 头部视图只通过Canvas绘制，不需要在这里布局
+        if (changed) {
+            mStateViewDirty = true;
+        }
+        
+        // 布局完成后重新计算加载更多阈值，并检查一次（列表不满一屏时无法滚动，只能在这里触发）
+        Adapter adapter = getAdapter();
+        int totalItemCount = adapter != null ? adapter.getItemCount() : 0;
+        mLoadMoreThreshold = Math.max(0, totalItemCount - LOAD_MORE_PREFETCH);
+        scheduleLoadMoreCheck();
     }
     
     /**
@@ -198,6 +274,38 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
             // 直接绘制头部视图，确保它只在RecyclerView内部显示
             drawHeaderView(canvas);
         }
+        if (mViewState != VIEW_STATE_CONTENT) {
+            drawStateView(canvas);
+        }
+    }
+    
+    /**
+     * 绘制空数据/加载失败状态视图，跟随下拉刷新头部的偏移量一起下移
+     */
+    private void drawStateView(Canvas canvas) {
+        if (mStateView == null || getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+        View stateView = mStateView.getStateView();
+        if (stateView == null) {
+            return;
+        }
+        // 只占内容区域（去掉padding；下拉时paddingTop是头部偏移量，状态视图随之变矮）
+        int contentWidth = Math.max(0, getWidth() - getPaddingLeft() - getPaddingRight());
+        int contentHeight = Math.max(0, getHeight() - getPaddingTop() - getPaddingBottom());
+        if (mStateViewDirty || stateView.getMeasuredWidth() != contentWidth
+                || stateView.getMeasuredHeight() != contentHeight) {
+            stateView.measure(
+                    MeasureSpec.makeMeasureSpec(contentWidth, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(contentHeight, MeasureSpec.EXACTLY)
+            );
+            stateView.layout(0, 0, contentWidth, contentHeight);
+            mStateViewDirty = false;
+        }
+        canvas.save();
+        canvas.translate(getPaddingLeft(), getPaddingTop());
+        stateView.draw(canvas);
+        canvas.restore();
     }
     
     /**
@@ -273,6 +381,8 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
     protected void onDetachedFromWindow() {
         // 先取消动画，避免在视图销毁时继续更新
         cancelHeaderOffsetAnimation();
+        removeCallbacks(mLoadMoreCheckRunnable);
+        mLoadMoreCheckPending = false;
         
         // 重置状态
         mCurrentHeaderOffset = 0;
@@ -306,6 +416,179 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         requestLayout();
     }
     
+    /**
+     * 设置空数据/加载失败状态视图
+     */
+    public void setStateView(StateView stateView) {
+        mStateView = stateView;
+        mStateViewDirty = true;
+        if (mViewState != VIEW_STATE_CONTENT) {
+            applyViewState(mViewState, null);
+        }
+    }
+    
+    /**
+     * 显示空数据状态，不修改Adapter
+     */
+    public void showEmptyState() {
+        applyViewState(VIEW_STATE_EMPTY, null);
+    }
+    
+    /**
+     * 显示加载失败状态，点击重试按钮（或无障碍的"重试"操作）后通过下拉刷新的流程重试
+     */
+    public void showErrorState() {
+        showErrorState(null);
+    }
+    
+    /**
+     * 显示加载失败状态，点击重试按钮（或无障碍的"重试"操作）后通过下拉刷新的流程重试
+     * @param message 失败提示，为null时使用默认提示
+     */
+    public void showErrorState(@Nullable CharSequence message) {
+        applyViewState(VIEW_STATE_ERROR, message);
+    }
+    
+    /**
+     * 隐藏状态视图，显示列表内容（Adapter有数据时会自动调用）
+     */
+    public void hideStateView() {
+        if (mViewState == VIEW_STATE_CONTENT) {
+            return;
+        }
+        mViewState = VIEW_STATE_CONTENT;
+        updateRetryAccessibilityAction();
+        invalidate();
+    }
+    
+    /**
+     * 重试：隐藏状态视图，并走下拉刷新的流程（显示刷新头部并回调 OnRefreshListener）
+     * 重试会开始新的一代刷新，之前失败请求迟到的结果可以通过 {@link #isCurrentRefresh(int)} 丢弃
+     */
+    public void retry() {
+        if (mCurrentState == STATE_REFRESHING) {
+            return;
+        }
+        hideStateView();
+        ensureRefreshHeader(getContext());
+        startRefresh();
+    }
+    
+    /**
+     * 获取内容状态
+     */
+    public int getViewState() {
+        return mViewState;
+    }
+    
+    /**
+     * 切换状态视图，状态视图在第一次使用时才创建
+     */
+    private void applyViewState(int viewState, @Nullable CharSequence message) {
+        if (mStateView == null) {
+            mStateView = new DefaultStateView(getContext());
+        }
+        if (viewState == VIEW_STATE_ERROR) {
+            mStateView.onError(message);
+        } else {
+            mStateView.onEmpty();
+        }
+        mViewState = viewState;
+        mStateViewDirty = true;
+        updateRetryAccessibilityAction();
+        invalidate();
+    }
+    
+    /**
+     * 重试按钮是Canvas绘制的，无障碍服务（TalkBack、切换控制）看不到，
+     * 加载失败状态下给RecyclerView添加"重试"操作，离开该状态时移除
+     */
+    private void updateRetryAccessibilityAction() {
+        if (mViewState == VIEW_STATE_ERROR) {
+            if (mRetryActionId == View.NO_ID) {
+                mRetryActionId = ViewCompat.addAccessibilityAction(this, "重试", mRetryCommand);
+            }
+        } else if (mRetryActionId != View.NO_ID) {
+            ViewCompat.removeAccessibilityAction(this, mRetryActionId);
+            mRetryActionId = View.NO_ID;
+        }
+    }
+    
+    /**
+     * 计算重试按钮在本View中的位置（状态视图没有提供重试按钮时为整个状态视图）
+     * @return 状态视图还没有布局时返回false
+     */
+    private boolean getRetryBounds(Rect outBounds) {
+        if (mStateView == null || mStateViewDirty) {
+            return false;
+        }
+        View stateView = mStateView.getStateView();
+        if (stateView == null) {
+            return false;
+        }
+        View retryView = mStateView.getRetryView();
+        if (retryView == null) {
+            retryView = stateView;
+        }
+        if (retryView.getVisibility() != View.VISIBLE) {
+            return false;
+        }
+        outBounds.set(0, 0, retryView.getWidth(), retryView.getHeight());
+        View view = retryView;
+        while (view != stateView) {
+            ViewParent parent = view.getParent();
+            if (!(parent instanceof View)) {
+                return false; // 重试按钮不在状态视图中
+            }
+            outBounds.offset(view.getLeft(), view.getTop());
+            view = (View) parent;
+        }
+        // 状态视图绘制在内容区域（见drawStateView）
+        outBounds.offset(getPaddingLeft(), getPaddingTop());
+        return true;
+    }
+    
+    private boolean isOnRetry(MotionEvent e) {
+        return getRetryBounds(mRetryBounds) && mRetryBounds.contains((int) e.getX(), (int) e.getY());
+    }
+    
+    /**
+     * 最后一项被删除后显示空数据状态（刷新过程中由 finishRefresh() 处理，这里不显示）
+     */
+    private void showEmptyStateIfNoData() {
+        if (mViewState != VIEW_STATE_CONTENT || mCurrentState == STATE_REFRESHING) {
+            return;
+        }
+        Adapter adapter = getAdapter();
+        Adapter dataAdapter = adapter instanceof WrapAdapter ? ((WrapAdapter) adapter).mInnerAdapter : adapter;
+        if (dataAdapter != null && dataAdapter.getItemCount() == 0) {
+            showEmptyState();
+        }
+    }
+    
+    /**
+     * 数据到达后隐藏状态视图
+     */
+    private void hideStateViewIfHasData() {
+        Adapter adapter = getAdapter();
+        if (mViewState != VIEW_STATE_CONTENT && adapter != null && adapter.getItemCount() > 0) {
+            hideStateView();
+        }
+    }
+    
+    @Override
+    public void setAdapter(@Nullable Adapter adapter) {
+        Adapter oldAdapter = getAdapter();
+        if (oldAdapter != null) {
+            oldAdapter.unregisterAdapterDataObserver(mStateDataObserver);
+        }
+        super.setAdapter(adapter);
+        if (adapter != null) {
+            adapter.registerAdapterDataObserver(mStateDataObserver);
+        }
+        hideStateViewIfHasData();
+    }
+    
     /**
      * 设置加载更多底部视图
      */
@@ -373,6 +656,10 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
     
     @Override
     public boolean onTouchEvent(MotionEvent e) {
+        if (mViewState == VIEW_STATE_ERROR) {
+            handleStateViewTap(e);
+        }
+        
         if (!mEnablePullRefresh || mRefreshHeader == null) {
             return super.onTouchEvent(e);
         }
@@ -406,6 +693,32 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         return super.onTouchEvent(e);
     }
     
+    /**
+     * 加载失败状态下，点击重试按钮（没有发生拖动）时重试
+     */
+    private void handleStateViewTap(MotionEvent e) {
+        switch (e.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                mStateDownX = e.getX();
+                mStateDownY = e.getY();
+                mStateDownOnRetry = isOnRetry(e);
+                break;
+            case MotionEvent.ACTION_UP:
+                if (mStateDownOnRetry
+                        && Math.abs(e.getX() - mStateDownX) < mTouchSlop
+                        && Math.abs(e.getY() - mStateDownY) < mTouchSlop
+                        && mCurrentHeaderOffset == 0
+                        && isOnRetry(e)) {
+                    retry();
+                }
+                mStateDownOnRetry = false;
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                mStateDownOnRetry = false;
+                break;
+        }
+    }
+    
     /**
      * 处理下拉刷新
      */
@@ -476,6 +789,7 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         if (mCurrentState == STATE_REFRESHING || mRefreshHeader == null) {
             return;
         }
+        mRefreshGeneration++;
         
         // 取消之前的动画
         cancelHeaderOffsetAnimation();
@@ -554,6 +868,32 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         mHeaderOffsetAnimator.start();
     }
     
+    /**
+     * 当前刷新的代数：在 OnRefreshListener.onRefresh() 中读取并随请求保存，
+     * 请求完成时通过 {@link #isCurrentRefresh(int)} 或 {@link #finishRefresh(int)} 判断结果是否过期
+     */
+    public int getRefreshGeneration() {
+        return mRefreshGeneration;
+    }
+    
+    /**
+     * 请求是否属于最近一次刷新（之后又开始了新的刷新或重试时返回false，结果应当丢弃）
+     */
+    public boolean isCurrentRefresh(int generation) {
+        return generation == mRefreshGeneration;
+    }
+    
+    /**
+     * 完成指定代数的刷新，过期请求的完成回调会被忽略
+     * @param generation 开始请求时 {@link #getRefreshGeneration()} 的值
+     */
+    public void finishRefresh(int generation) {
+        if (!isCurrentRefresh(generation)) {
+            return;
+        }
+        finishRefresh();
+    }
+    
     /**
      * 完成刷新
      */
@@ -565,6 +905,11 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         if (mRefreshHeader != null) {
             mRefreshHeader.onRefreshComplete();
         }
+        // 刷新后没有数据且没有显示失败状态时，显示空数据状态
+        Adapter adapter = getAdapter();
+        if (mViewState == VIEW_STATE_CONTENT && (adapter == null || adapter.getItemCount() == 0)) {
+            showEmptyState();
+        }
         // 延迟一点后再回到空闲状态，让用户看到"刷新完成"的提示
         postDelayed(() -> {
             if (mCurrentState == STATE_REFRESHING) {
@@ -686,17 +1031,56 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
     }
     
     /**
-     * 检查是否需要加载更多
+     * 是否允许加载更多（只判断状态字段，不查询LayoutManager和Adapter）
      */
-    private void checkLoadMore() {
+    private boolean canLoadMore() {
         // 如果正在刷新，不检查加载更多
         if (mCurrentState == STATE_REFRESHING || 
             mCurrentState == STATE_RELEASE_TO_REFRESH || 
             mCurrentState == STATE_PULL_DOWN) {
+            return false;
+        }
+        // 显示空数据/加载失败状态时不加载更多（空列表本身会触发，这里避免状态视图下继续请求）
+        if (mViewState != VIEW_STATE_CONTENT) {
+            return false;
+        }
+        return mEnableLoadMore && !mIsLoadingMore && mHasMoreData;
+    }
+    
+    /**
+     * 在下一次消息循环中检查加载更多（布局过程中不能修改Adapter，所以不能直接检查）；
+     * 上一页刚加载完成时延后到节流时间结束再检查
+     */
+    private void scheduleLoadMoreCheck() {
+        if (mLoadMoreCheckPending || !canLoadMore() || !isAttachedToWindow()) {
             return;
         }
-        
-        if (!mEnableLoadMore || mIsLoadingMore || !mHasMoreData) {
+        mLoadMoreCheckPending = true;
+        long wait = getLoadMoreThrottleRemaining();
+        if (wait > 0) {
+            postDelayed(mLoadMoreCheckRunnable, wait);
+        } else {
+            post(mLoadMoreCheckRunnable);
+        }
+    }
+    
+    /**
+     * 距离节流时间结束还有多久（毫秒），小于等于0表示可以检查
+     */
+    private long getLoadMoreThrottleRemaining() {
+        return mLastLoadMoreFinishTime + LOAD_MORE_THROTTLE_MS - SystemClock.uptimeMillis();
+    }
+    
+    /**
+     * 检查是否需要加载更多
+     */
+    private void checkLoadMore() {
+        if (!canLoadMore()) {
+            return;
+        }
+        // 一页刚加载完成，新数据的布局还没稳定，节流时间结束后再检查
+        if (getLoadMoreThrottleRemaining() > 0) {
+            scheduleLoadMoreCheck();
             return;
         }
         
@@ -706,16 +1090,20 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         }
         
         LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        Adapter adapter = getAdapter();
+        if (adapter == null) {
+            return;
+        }
         int lastVisiblePosition = linearLayoutManager.findLastVisibleItemPosition();
-        int totalItemCount = getAdapter() != null ? getAdapter().getItemCount() : 0;
+        int totalItemCount = adapter.getItemCount();
         
-        // 需要至少有一些数据才能加载更多
-        if (totalItemCount == 0) {
+        // 有数据但还没有布局出可见的item，等布局完成后再检查
+        if (lastVisiblePosition == NO_POSITION && totalItemCount > 0) {
             return;
         }
         
-        // 当滚动到倒数第3个item时，触发加载更多
-        if (lastVisiblePosition >= totalItemCount - 3 && lastVisiblePosition >= 0) {
+        // 当滚动到倒数第3个item时，触发加载更多（列表不满一屏时最后一个item可见，空列表同样会触发）
+        if (totalItemCount == 0 || lastVisiblePosition >= totalItemCount - LOAD_MORE_PREFETCH) {
             startLoadMore();
         }
     }
@@ -754,6 +1142,7 @@ public class RefreshRecyclerView extends RecyclerView implements NestedScrolling
         mIsLoadingMore = false;
         mHasMoreData = hasMore;
         mCurrentState = STATE_IDLE;
+        mLastLoadMoreFinishTime = SystemClock.uptimeMillis();
         // 移除footer
         removeFooterFromAdapter();
         if (mLoadMoreFooter != null) {
@@ -0,0 +1,35 @@
+package com.example.refreshrecyclerview;
+
+import android.view.View;
+
+/**
+ * 空数据/加载失败状态视图接口
+ *
+ * 状态视图不会添加到RecyclerView或Adapter中，由RefreshRecyclerView自己测量、布局并通过Canvas绘制
+ */
+public interface StateView {
+    
+    /**
+     * 获取状态视图
+     */
+    View getStateView();
+    
+    /**
+     * 显示空数据状态
+     */
+    void onEmpty();
+    
+    /**
+     * 显示加载失败状态（点击后重试）
+     * @param message 失败提示，为null时使用默认提示
+     */
+    void onError(CharSequence message);
+    
+    /**
+     * 获取加载失败状态下的重试按钮（状态视图中的子视图），只有点击它才会重试
+     * @return 重试按钮，返回null时整个状态视图都是重试区域
+     */
+    default View getRetryView() {
+        return null;
+    }
+}
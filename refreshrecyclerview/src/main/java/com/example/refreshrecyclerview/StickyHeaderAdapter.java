@@ -0,0 +1,39 @@
+package com.example.refreshrecyclerview;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 吸顶分组头数据接口，由业务Adapter实现，配合StickyHeaderDecoration使用
+ */
+public interface StickyHeaderAdapter {
+
+    /**
+     * 没有分组（例如加载更多底部视图所在的位置）
+     */
+    long NO_SECTION = -1;
+
+    /**
+     * 获取指定位置所属分组的ID，相邻且ID相同的item属于同一分组
+     * @param position 数据位置
+     * @return 分组ID，没有分组时返回 {@link #NO_SECTION}
+     */
+    long getSectionId(int position);
+
+    /**
+     * 创建分组头视图（只会创建一次，所有分组复用同一个视图进行渲染）
+     */
+    View onCreateHeaderView(ViewGroup parent);
+
+    /**
+     * 绑定分组头视图
+     * @param headerView 分组头视图
+     * @param position 该分组第一个item的位置
+     */
+    void onBindHeaderView(View headerView, int position);
+
+    /**
+     * 数据数量（RecyclerView.Adapter 已经实现了该方法）
+     */
+    int getItemCount();
+}
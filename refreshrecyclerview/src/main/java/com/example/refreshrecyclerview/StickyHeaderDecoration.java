@@ -0,0 +1,280 @@
+package com.example.refreshrecyclerview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.util.LruCache;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.logger.Tracer;
+
+/**
+ * 吸顶分组头ItemDecoration
+ *
+ * 分组头不作为真实的item加入Adapter，而是由Adapter提供每个位置的分组ID，
+ * 每个分组只渲染一次到位图缓存中，之后在 onDraw 中绘制在分组第一个item上方，
+ * 在 onDrawOver 中绘制吸顶头，并在下一个分组到达时把吸顶头往上推。
+ *
+ * 吸顶头从 RecyclerView 的 paddingTop 开始绘制，所以可以和下拉刷新头部（通过 paddingTop 偏移）共存；
+ * 加载更多底部视图的位置超出了业务Adapter的数据范围，不属于任何分组。
+ *
+ * 注意：所有分组头的高度相同，以第一次测量的高度为准。
+ */
+public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    private static final int DEFAULT_CACHE_SIZE = 8; // 默认最多缓存的分组头数量
+
+    private final StickyHeaderAdapter mAdapter;
+    private final LruCache<Long, Bitmap> mHeaderCache;
+    private final Canvas mRenderCanvas = new Canvas();
+
+    private View mHeaderView; // 所有分组共用的分组头视图，只用于渲染位图
+    private int mHeaderWidth;
+    private int mHeaderHeight;
+    private Bitmap mSpareBitmap; // 被淘汰的位图，留作下一次渲染的画布
+
+    // 当前吸顶的分组，连续帧处于同一分组时不再查缓存
+    private long mStickySectionId = StickyHeaderAdapter.NO_SECTION;
+    private Bitmap mStickyBitmap;
+
+    public StickyHeaderDecoration(@NonNull StickyHeaderAdapter adapter) {
+        this(adapter, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param adapter 分组数据接口
+     * @param maxCachedHeaders 最多缓存的分组头数量，应大于一屏内可见的分组数量
+     */
+    public StickyHeaderDecoration(@NonNull StickyHeaderAdapter adapter, int maxCachedHeaders) {
+        mAdapter = adapter;
+        mHeaderCache = new LruCache<Long, Bitmap>(Math.max(2, maxCachedHeaders)) {
+            @Override
+            protected void entryRemoved(boolean evicted, Long key, Bitmap oldValue, Bitmap newValue) {
+                if (oldValue == mStickyBitmap) {
+                    mStickyBitmap = null;
+                    mStickySectionId = StickyHeaderAdapter.NO_SECTION;
+                }
+                if (oldValue != newValue && oldValue.isMutable() && !oldValue.isRecycled()) {
+                    mSpareBitmap = oldValue;
+                }
+            }
+        };
+    }
+
+    /**
+     * 分组数据或分组头内容改变后调用，清除所有已渲染的分组头
+     */
+    public void invalidateHeaders() {
+        mHeaderCache.evictAll();
+        mStickyBitmap = null;
+        mStickySectionId = StickyHeaderAdapter.NO_SECTION;
+        mHeaderHeight = 0;
+    }
+
+    /**
+     * 只清除指定分组的分组头，下次绘制时重新渲染
+     */
+    public void invalidateHeader(long sectionId) {
+        mHeaderCache.remove(sectionId);
+    }
+
+    @Override
+    public void getItemOffsets(@NonNull Rect outRect, @NonNull View view,
+                               @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        int position = parent.getChildAdapterPosition(view);
+        if (position == RecyclerView.NO_POSITION || !isFirstInSection(position)) {
+            outRect.set(0, 0, 0, 0);
+            return;
+        }
+        ensureHeaderMeasured(parent, position);
+        outRect.set(0, mHeaderHeight, 0, 0);
+    }
+
+    @Override
+    public void onDraw(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        if (mHeaderHeight == 0) {
+            return;
+        }
+        int left = parent.getPaddingLeft();
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION || !isFirstInSection(position)) {
+                continue;
+            }
+            Bitmap bitmap = getHeaderBitmap(parent, getSectionId(position), position);
+            float top = child.getTop() + child.getTranslationY() - mHeaderHeight;
+            c.drawBitmap(bitmap, left, top, null);
+        }
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        int childCount = parent.getChildCount();
+        if (childCount == 0 || mHeaderHeight == 0) {
+            return;
+        }
+
+        // 吸顶位置：下拉刷新时 paddingTop 等于头部偏移量，吸顶头跟随内容一起下移
+        int stickyTop = parent.getPaddingTop();
+
+        // 找到顶部第一个可见的item
+        int topIndex = -1;
+        int topPosition = RecyclerView.NO_POSITION;
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            if (child.getBottom() + child.getTranslationY() > stickyTop) {
+                topPosition = parent.getChildAdapterPosition(child);
+                if (topPosition != RecyclerView.NO_POSITION) {
+                    topIndex = i;
+                    break;
+                }
+            }
+        }
+        if (topIndex < 0) {
+            return;
+        }
+        long sectionId = getSectionId(topPosition);
+        if (sectionId == StickyHeaderAdapter.NO_SECTION) {
+            return;
+        }
+
+        // 下一个分组的头部碰到吸顶头底部时，把吸顶头往上推
+        float headerTop = stickyTop;
+        for (int i = topIndex + 1; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION && isFirstInSection(position)) {
+                float nextHeaderTop = child.getTop() + child.getTranslationY() - mHeaderHeight;
+                if (nextHeaderTop < stickyTop + mHeaderHeight) {
+                    headerTop = nextHeaderTop - mHeaderHeight;
+                }
+                break;
+            }
+        }
+
+        Bitmap bitmap;
+        if (sectionId == mStickySectionId && mStickyBitmap != null) {
+            bitmap = mStickyBitmap;
+        } else {
+            bitmap = getHeaderBitmap(parent, sectionId, findSectionStart(topPosition, sectionId));
+            mStickySectionId = sectionId;
+            mStickyBitmap = bitmap;
+        }
+
+        // 只在 paddingTop 以下绘制，被推上去的部分不会盖住下拉刷新头部
+        int left = parent.getPaddingLeft();
+        c.save();
+        c.clipRect(left, stickyTop, parent.getWidth() - parent.getPaddingRight(), parent.getHeight());
+        c.drawBitmap(bitmap, left, headerTop, null);
+        c.restore();
+    }
+
+    /**
+     * 获取分组ID，超出业务数据范围的位置（如加载更多底部视图）不属于任何分组
+     */
+    private long getSectionId(int position) {
+        if (position < 0 || position >= mAdapter.getItemCount()) {
+            return StickyHeaderAdapter.NO_SECTION;
+        }
+        return mAdapter.getSectionId(position);
+    }
+
+    /**
+     * 是否是分组的第一个item
+     */
+    private boolean isFirstInSection(int position) {
+        long sectionId = getSectionId(position);
+        if (sectionId == StickyHeaderAdapter.NO_SECTION) {
+            return false;
+        }
+        return position == 0 || getSectionId(position - 1) != sectionId;
+    }
+
+    /**
+     * 向前查找分组的第一个item，只在分组头未缓存时调用
+     */
+    private int findSectionStart(int position, long sectionId) {
+        while (position > 0 && getSectionId(position - 1) == sectionId) {
+            position--;
+        }
+        return position;
+    }
+
+    /**
+     * 确保分组头视图已创建并测量，宽度变化时清除缓存
+     */
+    private void ensureHeaderMeasured(RecyclerView parent, int position) {
+        int width = parent.getMeasuredWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        if (width <= 0) {
+            return;
+        }
+        if (mHeaderView == null) {
+            mHeaderView = mAdapter.onCreateHeaderView(parent);
+        }
+        if (width != mHeaderWidth) {
+            mHeaderCache.evictAll();
+            mSpareBitmap = null;
+            mHeaderWidth = width;
+            mHeaderHeight = 0;
+        }
+        if (mHeaderHeight == 0) {
+            mAdapter.onBindHeaderView(mHeaderView, position);
+            mHeaderView.measure(
+                    View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED)
+            );
+            mHeaderHeight = mHeaderView.getMeasuredHeight();
+        }
+    }
+
+    /**
+     * 获取分组头位图，未缓存时渲染一次
+     */
+    private Bitmap getHeaderBitmap(RecyclerView parent, long sectionId, int position) {
+        Bitmap bitmap = mHeaderCache.get(sectionId);
+        if (bitmap == null) {
+            bitmap = renderHeader(parent, position);
+            mHeaderCache.put(sectionId, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 把分组头视图渲染到位图，优先复用被淘汰的位图
+     */
+    private Bitmap renderHeader(RecyclerView parent, int position) {
+        Tracer.begin("StickyHeaderDecoration#renderHeader");
+        try {
+            return renderHeaderBitmap(parent, position);
+        } finally {
+            Tracer.end();
+        }
+    }
+
+    private Bitmap renderHeaderBitmap(RecyclerView parent, int position) {
+        ensureHeaderMeasured(parent, position);
+        mAdapter.onBindHeaderView(mHeaderView, position);
+        mHeaderView.measure(
+                View.MeasureSpec.makeMeasureSpec(mHeaderWidth, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(mHeaderHeight, View.MeasureSpec.EXACTLY)
+        );
+        mHeaderView.layout(0, 0, mHeaderWidth, mHeaderHeight);
+
+        Bitmap bitmap = mSpareBitmap;
+        mSpareBitmap = null;
+        if (bitmap != null && bitmap.getWidth() == mHeaderWidth && bitmap.getHeight() == mHeaderHeight) {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        } else {
+            bitmap = Bitmap.createBitmap(mHeaderWidth, mHeaderHeight, Bitmap.Config.ARGB_8888);
+        }
+        mRenderCanvas.setBitmap(bitmap);
+        mHeaderView.draw(mRenderCanvas);
+        mRenderCanvas.setBitmap(null);
+        return bitmap;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.refreshrecyclerview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * ColumnarItemStore 的单元测试：分页追加、页查找、扩容和清空
+ */
+public class ColumnarItemStoreTest {
+
+    private static final int COLUMN_PAGE = 0;
+    private static final int COLUMN_INDEX = 1;
+
+    private static int appendPage(ColumnarItemStore store, int count, int page) {
+        return store.appendPage(count, (s, row, indexInPage) -> {
+            s.setInt(COLUMN_PAGE, row, page);
+            s.setInt(COLUMN_INDEX, row, indexInPage);
+        });
+    }
+
+    @Test
+    public void appendPage_returnsStartRowAndRecordsPages() {
+        ColumnarItemStore store = new ColumnarItemStore(2, 0, 0);
+        assertEquals(0, appendPage(store, 20, 0));
+        assertEquals(20, appendPage(store, 15, 1));
+        assertEquals(35, store.size());
+        assertEquals(2, store.getPageCount());
+        assertEquals(0, store.getPageStart(0));
+        assertEquals(20, store.getPageStart(1));
+        assertEquals(1, store.getInt(COLUMN_PAGE, 34));
+        assertEquals(14, store.getInt(COLUMN_INDEX, 34));
+    }
+
+    @Test
+    public void getPageOfRow_findsContainingPage() {
+        ColumnarItemStore store = new ColumnarItemStore(2, 0, 0);
+        appendPage(store, 20, 0);
+        appendPage(store, 20, 1);
+        appendPage(store, 5, 2);
+        assertEquals(0, store.getPageOfRow(0));
+        assertEquals(0, store.getPageOfRow(19));
+        assertEquals(1, store.getPageOfRow(20));
+        assertEquals(1, store.getPageOfRow(39));
+        assertEquals(2, store.getPageOfRow(40));
+        assertEquals(2, store.getPageOfRow(44));
+    }
+
+    @Test
+    public void getPageOfRow_skipsEmptyPages() {
+        ColumnarItemStore store = new ColumnarItemStore(2, 0, 0);
+        appendPage(store, 10, 0);
+        appendPage(store, 0, 1);
+        appendPage(store, 0, 2);
+        appendPage(store, 10, 3);
+        assertEquals(4, store.getPageCount());
+        // 空页和下一页的起始行号相同，行属于最后一个起始于该行的页
+        assertEquals(3, store.getPageOfRow(10));
+        assertEquals(3, store.getPageOfRow(15));
+        assertEquals(0, store.getPageOfRow(9));
+    }
+
+    @Test
+    public void appendPage_growsColumnsAndPageTable() {
+        ColumnarItemStore store = new ColumnarItemStore(2, 1, 1);
+        for (int page = 0; page < 30; page++) {
+            final int currentPage = page;
+            store.appendPage(7, (s, row, indexInPage) -> {
+                s.setInt(COLUMN_PAGE, row, currentPage);
+                s.setLong(0, row, row * 1000L);
+                s.setRef(0, row, "row" + row);
+            });
+        }
+        assertEquals(210, store.size());
+        assertEquals(30, store.getPageCount());
+        // 扩容后之前写入的数据保持不变
+        assertEquals(0, store.getInt(COLUMN_PAGE, 0));
+        assertEquals(29, store.getInt(COLUMN_PAGE, 209));
+        assertEquals(63_000L, store.getLong(0, 63));
+        assertEquals("row150", store.getRef(0, 150));
+        assertEquals(29, store.getPageOfRow(203));
+        assertEquals(147, store.getPageStart(21));
+    }
+
+    @Test
+    public void clear_resetsRowsAndPages() {
+        ColumnarItemStore store = new ColumnarItemStore(2, 0, 1);
+        store.appendPage(5, (s, row, indexInPage) -> s.setRef(0, row, "row" + row));
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.getPageCount());
+        // 引用列被清空，不再持有旧数据
+        assertNull(store.getRef(0, 3));
+
+        // 清空后重新从第0行、第0页开始
+        assertEquals(0, appendPage(store, 3, 0));
+        assertEquals(1, store.getPageCount());
+        assertEquals(0, store.getPageOfRow(2));
+    }
+
+    @Test
+    public void getText_usesFormatter() {
+        ColumnarItemStore store = new ColumnarItemStore(2, 0, 0);
+        assertEquals(0, appendPage(store, 3, 4));
+        assertEquals("", store.getText(0));
+        store.setTextFormatter((s, row, out) ->
+                out.append("第").append(s.getInt(COLUMN_PAGE, row)).append("页 #").append(s.getInt(COLUMN_INDEX, row)));
+        assertEquals("第4页 #2", store.getText(2));
+    }
+}